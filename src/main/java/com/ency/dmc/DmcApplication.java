@@ -2,8 +2,10 @@ package com.ency.dmc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DmcApplication {
     public static void main(String[] args) {
         SpringApplication.run(DmcApplication.class, args);
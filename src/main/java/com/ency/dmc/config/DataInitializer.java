@@ -2,6 +2,7 @@ package com.ency.dmc.config;
 
 import com.ency.dmc.model.*;
 import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductStatsRepository;
 import com.ency.dmc.repository.UserRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,6 +28,7 @@ public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ProductStatsRepository productStatsRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
@@ -123,7 +125,7 @@ public class DataInitializer implements CommandLineRunner {
             for (Map<String, Object> item : items) {
                 try {
                     Product p = buildProductFromSprutcam(item, index, users, rng);
-                    products.add(productRepository.save(p));
+                    products.add(saveWithStats(p));
                 } catch (Exception e) {
                     log.warn("Skipping row {}: {}", index, e.getMessage());
                 }
@@ -131,12 +133,22 @@ public class DataInitializer implements CommandLineRunner {
             }
         } catch (Exception e) {
             log.error("Failed to load seed-sprutcam.json, falling back to minimal data", e);
-            products.add(productRepository.save(buildFallbackProduct(users.get(1))));
+            products.add(saveWithStats(buildFallbackProduct(users.get(1))));
         }
 
         return products;
     }
 
+    // Counters are a separate row keyed by the generated product id
+    private Product saveWithStats(Product product) {
+        ProductStats stats = product.getStats();
+        product.setStats(null);
+        Product saved = productRepository.save(product);
+        stats.setProductId(saved.getId());
+        saved.setStats(productStatsRepository.save(stats));
+        return saved;
+    }
+
     private Product buildProductFromSprutcam(Map<String, Object> item, int index, List<User> users, Random rng) {
         String name = str(item, "name");
         String manufacturer = str(item, "machineManufacturer");
@@ -205,7 +217,7 @@ public class DataInitializer implements CommandLineRunner {
                 .publicationStatus(pubStatus)
                 .experienceStatus(expStatus)
                 .visibility(visibility)
-                .downloadCount(downloadCount)
+                .stats(ProductStats.of(null, downloadCount))
                 .owner(owner)
                 .createdAt(createdAt)
                 .publishedAt(publishedAt)
@@ -565,7 +577,7 @@ public class DataInitializer implements CommandLineRunner {
                 .imageUrl(pickImageUrl("HAAS", ContentCategory.CNC_MACHINES, MachineType.MILLING, 0))
                 .publicationStatus(PublicationStatus.PUBLISHED)
                 .visibility(Visibility.PUBLIC)
-                .downloadCount(0)
+                .stats(ProductStats.of(null, 0))
                 .owner(owner)
                 .build();
     }
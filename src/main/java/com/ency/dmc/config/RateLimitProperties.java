@@ -0,0 +1,47 @@
+package com.ency.dmc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Use the first X-Forwarded-For hop as client address; only behind a trusted proxy
+    private boolean trustForwardedFor = false;
+
+    private String apiKeyHeader = "X-API-Key";
+
+    // Keys that get their own bucket; any other key is limited by client address
+    private Set<String> apiKeys = new HashSet<>();
+
+    // Upper bound on tracked (policy, client) buckets across all stripes
+    private int maxClients = 100_000;
+
+    // A bucket that has been full for this long is dropped
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    // First matching policy wins
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String name;
+        // HTTP method, or null for any
+        private String method;
+        // Spring path pattern, e.g. /api/licenses/verify/**
+        private String path;
+        // Burst size
+        private int capacity;
+        // Sustained requests per second
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends connections for @Transactional(readOnly = true) work to the replica pool.
+// Must sit behind a LazyConnectionDataSourceProxy so the target is chosen on the first
+// statement, after the transaction's read-only flag has been bound.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
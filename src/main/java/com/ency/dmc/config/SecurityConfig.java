@@ -3,14 +3,18 @@ package com.ency.dmc.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -21,8 +25,16 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // Backs both HTTP Basic and the bearer token from /api/auth/login
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder) {
+        return new VerifiedPasswordAuthenticationProvider(userDetailsService, passwordEncoder);
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationConfiguration authenticationConfiguration)
+            throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin))
@@ -38,9 +50,15 @@ public class SecurityConfig {
                 .requestMatchers("/h2-console/**").permitAll()
                 // Swagger
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/v3/api-docs/**").permitAll()
+                // Analytics aggregate over every product, including private and draft ones
+                .requestMatchers("/api/analytics/**").hasRole("ADMIN")
+                // Audit trail, slow-query samples, duplicate clusters and cache internals
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 // Everything else requires auth
                 .anyRequest().permitAll()  // Prototype: allow all for now
             )
+            .addFilterBefore(new BearerTokenAuthenticationFilter(authenticationConfiguration.getAuthenticationManager()),
+                    BasicAuthenticationFilter.class)
             .httpBasic(basic -> {});
 
         return http.build();
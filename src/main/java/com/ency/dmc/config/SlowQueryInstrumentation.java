@@ -0,0 +1,58 @@
+package com.ency.dmc.config;
+
+import com.ency.dmc.service.SlowQueryLog;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource for statement timing and tags each repository call so
+// slow statements can be traced back to the method that issued them.
+@Component
+@ConditionalOnProperty(name = "app.slow-queries.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryInstrumentation implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    public SlowQueryInstrumentation(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repository) -> proxyFactory.addAdvice(
+                            originTagger(repository.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    // Only the primary bean: with a read replica configured the pools behind it stay unwrapped
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+            SlowQueryLog log = slowQueryLog.getObject();
+            log.setExplainDataSource(dataSource);
+            return TimedJdbc.wrap(dataSource, log);
+        }
+        return bean;
+    }
+
+    private static MethodInterceptor originTagger(String repositoryName) {
+        return invocation -> {
+            String previous = SlowQueryLog.enter(repositoryName + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                SlowQueryLog.exit(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package com.ency.dmc.config;
+
+import com.ency.dmc.service.SlowQueryLog;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+
+// JDK proxies over the JDBC interfaces: every statement execution is timed and reported to
+// SlowQueryLog together with its SQL and the parameters bound for that execution.
+final class TimedJdbc {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private TimedJdbc() {
+    }
+
+    static DataSource wrap(DataSource target, SlowQueryLog slowQueryLog) {
+        Class<?>[] interfaces = target instanceof AutoCloseable
+                ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(TimedJdbc.class.getClassLoader(), interfaces,
+                new Handler(target) {
+                    @Override
+                    Object onResult(Object proxy, Method method, Object[] args, Object result) {
+                        return result instanceof Connection connection
+                                ? connection(connection, slowQueryLog) : result;
+                    }
+                });
+    }
+
+    private static Connection connection(Connection target, SlowQueryLog slowQueryLog) {
+        return (Connection) Proxy.newProxyInstance(TimedJdbc.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handler(target) {
+                    @Override
+                    Object onResult(Object proxy, Method method, Object[] args, Object result) {
+                        if (result instanceof CallableStatement statement) {
+                            return statement(statement, CallableStatement.class, (String) args[0],
+                                    (Connection) proxy, slowQueryLog);
+                        }
+                        if (result instanceof PreparedStatement statement) {
+                            return statement(statement, PreparedStatement.class, (String) args[0],
+                                    (Connection) proxy, slowQueryLog);
+                        }
+                        if (result instanceof Statement statement) {
+                            return statement(statement, Statement.class, null, (Connection) proxy, slowQueryLog);
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    private static Statement statement(Statement target, Class<? extends Statement> type, String preparedSql,
+                                       Connection connection, SlowQueryLog slowQueryLog) {
+        return (Statement) Proxy.newProxyInstance(TimedJdbc.class.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(target, preparedSql, connection, slowQueryLog));
+    }
+
+    private static class Handler implements InvocationHandler {
+
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                    break;
+                default:
+            }
+            return onResult(proxy, method, args, invokeTarget(method, args));
+        }
+
+        Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        Object onResult(Object proxy, Method method, Object[] args, Object result) {
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+
+        private final String preparedSql;
+        private final Connection connection;
+        private final SlowQueryLog slowQueryLog;
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+
+        StatementHandler(Statement target, String preparedSql, Connection connection, SlowQueryLog slowQueryLog) {
+            super(target);
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                        : preparedSql != null ? preparedSql : "/* statement batch */";
+                long started = System.nanoTime();
+                try {
+                    return invokeTarget(method, args);
+                } finally {
+                    slowQueryLog.record(sql, parameters, parameterCount, System.nanoTime() - started);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+                parameterCount = 0;
+            } else if (name.equals("getConnection")) {
+                return connection;
+            }
+            return super.invoke(proxy, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, Math.max(8, parameters.length * 2)));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ency.dmc.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Every request carries the password, and a BCrypt check costs tens of milliseconds, so
+ * pairs that already matched are remembered. The key digests the stored hash together
+ * with the presented password: a changed password or hash simply misses.
+ */
+class VerifiedPasswordAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Set<String> verified = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            }));
+
+    VerifiedPasswordAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) {
+        if (authentication.getCredentials() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+        String key = digest(userDetails.getPassword(), authentication.getCredentials().toString());
+        if (verified.contains(key)) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        verified.add(key);
+    }
+
+    private static String digest(String storedHash, String presented) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(storedHash.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            return HexFormat.of().formatHex(sha.digest(presented.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
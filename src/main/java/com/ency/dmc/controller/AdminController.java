@@ -0,0 +1,105 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.dto.ArtifactStorageStatsDto;
+import com.ency.dmc.dto.AuditEntryDto;
+import com.ency.dmc.dto.AuditStatsDto;
+import com.ency.dmc.dto.CacheBusStatsDto;
+import com.ency.dmc.dto.DuplicateClustersDto;
+import com.ency.dmc.dto.ImagePipelineStatsDto;
+import com.ency.dmc.dto.ProductCacheStatsDto;
+import com.ency.dmc.dto.RateLimitStatsDto;
+import com.ency.dmc.dto.SecondLevelCacheStatsDto;
+import com.ency.dmc.dto.SlowQueryReportDto;
+import com.ency.dmc.service.ArtifactStorage;
+import com.ency.dmc.service.AuditService;
+import com.ency.dmc.service.CacheInvalidationBus;
+import com.ency.dmc.service.ImageService;
+import com.ency.dmc.service.NearDuplicateIndex;
+import com.ency.dmc.service.ProductJsonCache;
+import com.ency.dmc.service.RateLimiter;
+import com.ency.dmc.service.SecondLevelCacheStats;
+import com.ency.dmc.service.SlowQueryLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ArtifactStorage artifactStorage;
+    private final AuditService auditService;
+    private final RateLimiter rateLimiter;
+    private final ProductJsonCache productJsonCache;
+    private final ImageService imageService;
+    private final SecondLevelCacheStats secondLevelCacheStats;
+    private final SlowQueryLog slowQueryLog;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final NearDuplicateIndex nearDuplicateIndex;
+
+    @GetMapping("/artifacts/stats")
+    public ResponseEntity<ArtifactStorageStatsDto> getArtifactStats() {
+        return ResponseEntity.ok(artifactStorage.stats());
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<List<AuditEntryDto>> getAuditEntries(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditService.query(action, entityType, entityId, since, limit));
+    }
+
+    @GetMapping("/audit/stats")
+    public ResponseEntity<AuditStatsDto> getAuditStats() {
+        return ResponseEntity.ok(auditService.stats());
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<RateLimitStatsDto> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.stats());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<SecondLevelCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStats.stats());
+    }
+
+    @GetMapping("/cache-bus/stats")
+    public ResponseEntity<CacheBusStatsDto> getCacheBusStats() {
+        return ResponseEntity.ok(cacheInvalidationBus.stats());
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<DuplicateClustersDto> getDuplicates(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(nearDuplicateIndex.clusters(limit));
+    }
+
+    @GetMapping("/slow-queries")
+    public ResponseEntity<SlowQueryReportDto> getSlowQueries(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(slowQueryLog.report(limit));
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> resetSlowQueries() {
+        slowQueryLog.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/images/stats")
+    public ResponseEntity<ImagePipelineStatsDto> getImageStats() {
+        return ResponseEntity.ok(imageService.stats());
+    }
+
+    @GetMapping("/product-cache/stats")
+    public ResponseEntity<ProductCacheStatsDto> getProductCacheStats() {
+        return ResponseEntity.ok(productJsonCache.stats());
+    }
+}
@@ -0,0 +1,22 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.dto.AnalyticsQueryRequest;
+import com.ency.dmc.dto.AnalyticsResultDto;
+import com.ency.dmc.service.CatalogAnalytics;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final CatalogAnalytics catalogAnalytics;
+
+    @PostMapping("/query")
+    public ResponseEntity<AnalyticsResultDto> query(@Valid @RequestBody AnalyticsQueryRequest request) {
+        return ResponseEntity.ok(catalogAnalytics.query(request));
+    }
+}
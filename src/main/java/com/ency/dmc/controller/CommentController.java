@@ -0,0 +1,50 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.dto.CommentCreateRequest;
+import com.ency.dmc.dto.CommentDto;
+import com.ency.dmc.dto.CommentPageDto;
+import com.ency.dmc.service.CommentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/{productId}/comments")
+@RequiredArgsConstructor
+public class CommentController {
+
+    private final CommentService commentService;
+
+    @GetMapping
+    public ResponseEntity<CommentPageDto> getComments(@PathVariable Long productId,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getComments(productId, cursor, size, CurrentUser.username()));
+    }
+
+    @PostMapping
+    public ResponseEntity<CommentDto> addComment(
+            @PathVariable Long productId,
+            @Valid @RequestBody CommentCreateRequest request) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(commentService.addComment(productId, username, request.getText()));
+    }
+
+    @DeleteMapping("/{commentId}")
+    public ResponseEntity<Void> deleteComment(
+            @PathVariable Long productId,
+            @PathVariable Long commentId) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        commentService.deleteComment(productId, commentId, username);
+        return ResponseEntity.noContent().build();
+    }
+}
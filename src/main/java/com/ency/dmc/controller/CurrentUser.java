@@ -0,0 +1,21 @@
+package com.ency.dmc.controller;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    // Username whose credentials Spring Security verified for this request, or null for anonymous callers
+    static String username() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
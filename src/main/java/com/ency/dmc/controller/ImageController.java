@@ -0,0 +1,49 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.service.ImageService;
+import com.ency.dmc.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private final ImageService imageService;
+    private final ProductService productService;
+
+    @PostMapping(value = "/products/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductDto> upload(@PathVariable Long id,
+                                             @RequestParam("file") MultipartFile file) throws IOException {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        productService.requireOwner(id, username);
+        return ResponseEntity.ok(imageService.upload(id, file));
+    }
+
+    // Content-addressed, so a URL always names the same bytes and may be cached forever
+    @GetMapping(value = "/images/{sha}.jpg", produces = MediaType.IMAGE_JPEG_VALUE)
+    public ResponseEntity<Resource> get(@PathVariable String sha) {
+        Path file = imageService.find(sha)
+                .orElseThrow(() -> new RuntimeException("Image not found: " + sha));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .eTag(sha)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.dto.ModerationQueueDto;
+import com.ency.dmc.dto.ModerationTransitionRequest;
+import com.ency.dmc.dto.ModerationTransitionResultDto;
+import com.ency.dmc.service.ModerationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/moderation")
+@RequiredArgsConstructor
+public class ModerationController {
+
+    private final ModerationService moderationService;
+
+    @GetMapping("/queue")
+    public ResponseEntity<ModerationQueueDto> getQueue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(moderationService.getQueue(username, cursor, size));
+    }
+
+    @PostMapping("/transitions")
+    public ResponseEntity<ModerationTransitionResultDto> transition(
+            @Valid @RequestBody ModerationTransitionRequest request) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(moderationService.transition(username, request.getIds(), request.getStatus()));
+    }
+}
@@ -3,15 +3,21 @@ package com.ency.dmc.controller;
 import com.ency.dmc.dto.*;
 import com.ency.dmc.model.*;
 import com.ency.dmc.repository.UserRepository;
+import com.ency.dmc.service.ProductChangeFeed;
+import com.ency.dmc.service.ProductJsonCache;
 import com.ency.dmc.service.ProductService;
+import com.ency.dmc.service.VendorDashboardService;
+import com.ency.dmc.service.VersionConflictException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,16 +28,17 @@ public class ProductController {
 
     private final ProductService productService;
     private final UserRepository userRepository;
+    private final VendorDashboardService dashboardService;
+    private final ProductChangeFeed changeFeed;
 
     @GetMapping
     public ResponseEntity<List<ProductDto>> getAll() {
-        return ResponseEntity.ok(productService.findAll());
+        return ResponseEntity.ok(productService.findAll(CurrentUser.username()));
     }
 
     @GetMapping("/my")
-    public ResponseEntity<List<ProductDto>> getMyProducts(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String username = extractUsername(authHeader);
+    public ResponseEntity<List<ProductDto>> getMyProducts() {
+        String username = CurrentUser.username();
         if (username == null) {
             return ResponseEntity.ok(Collections.emptyList());
         }
@@ -40,35 +47,122 @@ public class ProductController {
                 .orElse(ResponseEntity.ok(Collections.emptyList()));
     }
 
+    @GetMapping("/my/dashboard")
+    public ResponseEntity<VendorDashboardDto> getMyDashboard() {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(dashboardService.getDashboard(username));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<ProductDto>> getTrending(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.findTrending(Math.max(1, Math.min(limit, 100)),
+                CurrentUser.username()));
+    }
+
+    // Server-Sent Events; reconnecting clients resume after Last-Event-ID
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(productService.viewerFor(CurrentUser.username()), lastEventId);
+    }
+
+    // Delta sync for offline mirrors: pass the returned token as since, plus afterId while hasMore
+    @GetMapping("/sync")
+    public ResponseEntity<ProductSyncPageDto> sync(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(productService.sync(since, afterId, limit, CurrentUser.username()));
+    }
+
+    // Pre-serialized bytes from ProductJsonCache, gzipped when the client accepts it; each
+    // encoding has its own ETag, since the bytes differ
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findById(id));
+    public ResponseEntity<byte[]> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductJsonCache.Entry entry = productService.findJsonById(id, CurrentUser.username());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(entry.version() + "-gz")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(entry.gzip());
+        }
+        return response.eTag(String.valueOf(entry.version())).body(entry.json());
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<ProductDto>> getSimilar(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.findSimilar(id, Math.max(1, Math.min(limit, 50)),
+                CurrentUser.username()));
     }
 
     @PostMapping("/search")
-    public ResponseEntity<Page<ProductDto>> search(@RequestBody ProductSearchRequest request) {
-        return ResponseEntity.ok(productService.search(request));
+    public ResponseEntity<Page<ProductDto>> search(
+            @RequestBody ProductSearchRequest request) {
+        return ResponseEntity.ok(productService.search(request, CurrentUser.username()));
     }
 
     @PostMapping
     public ResponseEntity<ProductDto> create(
-            @Valid @RequestBody ProductCreateRequest request,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String username = extractUsername(authHeader);
+            @Valid @RequestBody ProductCreateRequest request) {
+        String username = CurrentUser.username();
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(productService.create(request, username));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDto> update(@PathVariable Long id,
-                                             @Valid @RequestBody ProductCreateRequest request) {
-        return ResponseEntity.ok(productService.update(id, request));
+    public ResponseEntity<ProductDto> update(
+            @PathVariable Long id,
+            @Valid @RequestBody ProductCreateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(productService.update(id, request, parseIfMatch(id, ifMatch)));
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<ProductDto> updateStatus(@PathVariable Long id,
-                                                   @RequestParam PublicationStatus status) {
-        return ResponseEntity.ok(productService.updateStatus(id, status));
+    public ResponseEntity<ProductDto> updateStatus(
+            @PathVariable Long id,
+            @RequestParam PublicationStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(productService.updateStatus(id, status, parseIfMatch(id, ifMatch)));
+    }
+
+    @PostMapping("/bulk/update")
+    public ResponseEntity<BulkOperationResultDto> bulkUpdate(
+            @Valid @RequestBody BulkUpdateRequest request) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(productService.bulkUpdate(request, username));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationResultDto> bulkDelete(
+            @RequestBody BulkDeleteRequest request) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(productService.bulkDelete(request, username));
+    }
+
+    @PostMapping("/bulk/import")
+    public ResponseEntity<ProductImportResultDto> importProducts(
+            @Valid @RequestBody ProductImportRequest request) {
+        String username = CurrentUser.username();
+        if (username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(productService.importProducts(request.getProducts(), username));
     }
 
     @PostMapping("/{id}/download")
@@ -88,17 +182,42 @@ public class ProductController {
         return ResponseEntity.ok(productService.getFilterOptions());
     }
 
-    private String extractUsername(String authHeader) {
-        if (authHeader == null || authHeader.isBlank()) return null;
-        try {
-            String token = authHeader.replace("Bearer ", "").replace("Basic ", "");
-            String decoded = new String(Base64.getDecoder().decode(token));
-            if (decoded.contains(":")) {
-                return decoded.split(":")[0];
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
             }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<ProductDto> withETag(ProductDto product) {
+        // Visibility depends on the caller, so shared caches must key on Authorization
+        return ResponseEntity.ok().eTag(String.valueOf(product.getVersion()))
+                .varyBy(HttpHeaders.AUTHORIZATION).body(product);
+    }
+
+    // If-Match carries the version from a previous ETag (either encoding); absent or "*" skips the check
+    private static Long parseIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
             return null;
-        } catch (Exception e) {
-            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        if (tag.endsWith("-gz")) {
+            tag = tag.substring(0, tag.length() - 3);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new VersionConflictException("Malformed If-Match for product " + id + ": " + ifMatch);
         }
     }
 }
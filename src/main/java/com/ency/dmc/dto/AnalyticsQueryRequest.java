@@ -0,0 +1,25 @@
+package com.ency.dmc.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class AnalyticsQueryRequest {
+    // Dimension names, e.g. machineManufacturer, controllerManufacturer, priceBand
+    @Size(max = 3)
+    private List<String> groupBy = List.of();
+
+    // Dimension name -> accepted values; "null" matches missing values
+    private Map<String, List<String>> filters = Map.of();
+
+    // count, downloads, avgPrice, minPrice or maxPrice
+    private String orderBy = "count";
+
+    @Min(1) @Max(10000)
+    private int limit = 100;
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AnalyticsResultDto {
+    private List<String> groupBy;
+    private List<AnalyticsRowDto> rows;
+    private int groups;
+    private int scannedRows;
+    private long tookMicros;
+    private Instant snapshotRebuiltAt;
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AnalyticsRowDto {
+    private Map<String, String> group;
+    private long count;
+    private long downloads;
+    // Price statistics over products with a price; null when none has one
+    private Double avgPrice;
+    private Double minPrice;
+    private Double maxPrice;
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArtifactDto {
+    private Long id;
+    private Long productId;
+    private String fileName;
+    private String mediaType;
+    private Long sizeBytes;
+    private String sha256;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArtifactStorageStatsDto {
+    private String store;
+    private long artifactReferences;
+    private long logicalBytes;
+    private long physicalBytes;
+    private double dedupRatio;
+    private long ingestedArtifacts;
+    private long ingestedBytes;
+    private long ingestMillis;
+    private double ingestMegabytesPerSecond;
+}
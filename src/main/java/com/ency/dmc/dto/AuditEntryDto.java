@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AuditEntryDto {
+    private long sequence;
+    private Instant timestamp;
+    private String action;
+    private String entityType;
+    private Long entityId;
+    private Map<String, Object> details;
+}
@@ -0,0 +1,18 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AuditStatsDto {
+    private long recorded;
+    private long written;
+    private long batches;
+    private long backPressureWaits;
+    private long writeFailures;
+    private int pending;
+    private int capacity;
+    private int segments;
+    private long nextSequence;
+}
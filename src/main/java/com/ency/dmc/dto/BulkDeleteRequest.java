@@ -0,0 +1,12 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+// Selects products either by ids or by filter, not both
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class BulkDeleteRequest {
+    private List<Long> ids;
+    private ProductSearchRequest filter;
+}
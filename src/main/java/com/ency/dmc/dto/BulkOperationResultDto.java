@@ -0,0 +1,15 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkOperationResultDto {
+    // Products matched by the selection that the caller may modify
+    private int matched;
+    private int affected;
+    // Matched products left untouched, e.g. deletes of products with issued licenses
+    private List<Long> skippedIds;
+}
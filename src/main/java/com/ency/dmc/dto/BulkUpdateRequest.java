@@ -0,0 +1,18 @@
+package com.ency.dmc.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import java.util.List;
+
+// Selects products either by ids or by filter, not both
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class BulkUpdateRequest {
+    private List<Long> ids;
+    private ProductSearchRequest filter;
+
+    @NotNull
+    @Valid
+    private ProductPatchRequest patch;
+}
@@ -0,0 +1,22 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CacheBusStatsDto {
+    private String nodeId;
+    private int pendingKeys;
+    private long publishedKeys;
+    private long rowsWritten;
+    private long rowsReceived;
+    private long keysReceived;
+    private long resets;
+    private long lastAppliedSeq;
+    // Commit-to-apply delay of the last remote row received
+    private long lastLagMillis;
+    private Instant lastPollAt;
+}
@@ -0,0 +1,16 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CacheRegionStatsDto {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio;
+    // -1 when the provider does not report it
+    private long elementsInMemory;
+}
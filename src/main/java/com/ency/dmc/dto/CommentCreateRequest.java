@@ -0,0 +1,13 @@
+package com.ency.dmc.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class CommentCreateRequest {
+    @NotBlank
+    @Size(max = 2000)
+    private String text;
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CommentDto {
+    private Long id;
+    private Long productId;
+    private String text;
+    private Long authorId;
+    private String authorUsername;
+    private String authorFullName;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CommentPageDto {
+    private List<CommentDto> items;
+    // Opaque cursor for the next page, null when there are no more comments
+    private String nextCursor;
+}
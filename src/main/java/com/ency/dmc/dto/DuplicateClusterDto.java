@@ -0,0 +1,13 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DuplicateClusterDto {
+    private List<Long> productIds;
+    // Same order as productIds
+    private List<String> names;
+}
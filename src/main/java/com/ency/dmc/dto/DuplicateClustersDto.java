@@ -0,0 +1,18 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DuplicateClustersDto {
+    private double threshold;
+    private int indexedProducts;
+    private int clusterCount;
+    // Products that belong to some cluster
+    private int duplicateProducts;
+    private double computeMillis;
+    // Largest first, limited
+    private List<DuplicateClusterDto> clusters;
+}
@@ -0,0 +1,20 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ImagePipelineStatsDto {
+    private int workers;
+    private int activeWorkers;
+    private int queued;
+    private long processed;
+    private long failed;
+    private long rejected;
+    private long inputBytes;
+    private long outputBytes;
+    private long processingMillis;
+    private double averageMillis;
+    private long storedFiles;
+}
@@ -0,0 +1,22 @@
+package com.ency.dmc.dto;
+
+import com.ency.dmc.model.ContentCategory;
+import com.ency.dmc.model.ContentType;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ModerationItemDto {
+    private Long id;
+    private String name;
+    private ContentType contentType;
+    private ContentCategory category;
+    private String productOwner;
+    private Long ownerId;
+    private String ownerUsername;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+}
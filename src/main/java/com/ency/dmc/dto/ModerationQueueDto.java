@@ -0,0 +1,14 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ModerationQueueDto {
+    private List<ModerationItemDto> items;
+    // Opaque cursor for the next page, null when the queue is exhausted
+    private String nextCursor;
+    private long pendingTotal;
+}
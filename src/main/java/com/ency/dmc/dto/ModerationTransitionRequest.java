@@ -0,0 +1,20 @@
+package com.ency.dmc.dto;
+
+import com.ency.dmc.model.PublicationStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class ModerationTransitionRequest {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<Long> ids;
+
+    // PUBLISHED or REJECTED
+    @NotNull
+    private PublicationStatus status;
+}
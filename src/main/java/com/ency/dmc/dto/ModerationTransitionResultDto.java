@@ -0,0 +1,16 @@
+package com.ency.dmc.dto;
+
+import com.ency.dmc.model.PublicationStatus;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ModerationTransitionResultDto {
+    private PublicationStatus status;
+    private int requested;
+    private int updated;
+    // Ids that were missing or no longer pending review
+    private List<Long> skippedIds;
+}
@@ -0,0 +1,15 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductCacheStatsDto {
+    private int entries;
+    private long bytes;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.model.PublicationStatus;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductChangeNoticeDto {
+    private Long productId;
+    private ProductChangeType type;
+    // Null for deletions and for bulk changes that did not touch the status
+    private PublicationStatus status;
+    private LocalDateTime updatedAt;
+}
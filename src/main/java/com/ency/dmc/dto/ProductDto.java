@@ -1,9 +1,11 @@
 package com.ency.dmc.dto;
 
 import com.ency.dmc.model.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor @AllArgsConstructor
@@ -35,16 +37,24 @@ public class ProductDto {
     private String supportedCodes;
     private String sampleOutputCode;
     private String imageUrl;
+    private String thumbnailUrl;
 
     private PublicationStatus publicationStatus;
     private ExperienceStatus experienceStatus;
     private Visibility visibility;
 
     private Integer downloadCount;
+    private Integer commentCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime publishedAt;
 
+    private Long version;
+
     private Long ownerId;
     private String ownerUsername;
+
+    // Only on create and import responses: existing products that look like the same item
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> possibleDuplicateIds;
 }
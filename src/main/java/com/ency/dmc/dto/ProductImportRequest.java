@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class ProductImportRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<ProductCreateRequest> products;
+}
@@ -0,0 +1,15 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductImportResultDto {
+    private int created;
+    // Created products with at least one possibleDuplicateIds entry
+    private int flagged;
+    // In request order
+    private List<ProductDto> products;
+}
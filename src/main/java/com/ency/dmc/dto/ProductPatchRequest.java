@@ -0,0 +1,33 @@
+package com.ency.dmc.dto;
+
+import com.ency.dmc.model.*;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+import java.math.BigDecimal;
+
+// Fields applied by bulk updates; null means "leave unchanged"
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductPatchRequest {
+    private String kitContents;
+    private String minSoftwareVersion;
+
+    private String machineManufacturer;
+    private String machineSeries;
+    private MachineType machineType;
+
+    private String controllerManufacturer;
+    private String controllerSeries;
+    private String controllerModel;
+
+    @PositiveOrZero
+    private BigDecimal priceEur;
+    private String productOwner;
+    private String authorName;
+    @PositiveOrZero
+    private Integer trialDays;
+
+    private Visibility visibility;
+    private ExperienceStatus experienceStatus;
+}
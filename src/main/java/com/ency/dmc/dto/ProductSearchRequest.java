@@ -15,9 +15,11 @@ public class ProductSearchRequest {
     private String controllerManufacturer;
     private Integer numberOfAxes;
     private String contentOwner;
+    // Installed software version, e.g. "SprutCAM X 16"; hides products that need a newer one
     private String compatibility;
     private int page = 0;
     private int size = 20;
+    // One of the SortKey fields: createdAt, publishedAt, name, priceEur, downloadCount, trending
     private String sortBy = "createdAt";
     private String sortDir = "desc";
 }
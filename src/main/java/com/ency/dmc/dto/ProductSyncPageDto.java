@@ -0,0 +1,21 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductSyncPageDto {
+    // Changed products the caller can see, oldest change first
+    private List<ProductDto> products;
+    // Deleted products and ones the caller can no longer see in the catalog
+    private List<Long> removedIds;
+    // Change sequence number to pass as since on the next request
+    private long token;
+    // Set while hasMore: resume point inside the token's batch
+    private Long afterId;
+    private boolean hasMore;
+    // Set when since predates the tombstone retention: drop the mirror and sync again without since
+    private boolean reset;
+}
@@ -0,0 +1,14 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RateLimitPolicyStatsDto {
+    private String name;
+    private int capacity;
+    private double refillPerSecond;
+    private long allowed;
+    private long throttled;
+}
@@ -0,0 +1,13 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RateLimitStatsDto {
+    private int trackedBuckets;
+    private long evictions;
+    private List<RateLimitPolicyStatsDto> policies;
+}
@@ -0,0 +1,17 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SecondLevelCacheStatsDto {
+    private List<CacheRegionStatsDto> regions;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private long queryCachePuts;
+    // Entities loaded from the database rather than the cache
+    private long entityLoads;
+    private long statementsPrepared;
+}
@@ -0,0 +1,24 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SlowQueryDto {
+    // Normalized statement: literals replaced by ?, IN lists folded
+    private String statement;
+    // The slowest execution seen, with its bound parameters and issuing method
+    private String sampleSql;
+    private List<String> parameters;
+    private String origin;
+    private long count;
+    private double totalMillis;
+    private double maxMillis;
+    private double averageMillis;
+    private Instant lastSeen;
+    // EXPLAIN output, when sampled
+    private String plan;
+}
@@ -0,0 +1,14 @@
+package com.ency.dmc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SlowQueryReportDto {
+    private double thresholdMillis;
+    private long statementsTimed;
+    private long slowStatements;
+    private List<SlowQueryDto> queries;
+}
@@ -0,0 +1,24 @@
+package com.ency.dmc.dto;
+
+import com.ency.dmc.model.PublicationStatus;
+import lombok.*;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class VendorDashboardDto {
+    private Long ownerId;
+    private long totalProducts;
+    private Map<PublicationStatus, Long> productsByStatus;
+
+    private long totalDownloads;
+    private long downloadsLast24h;
+    private long downloadsLast7d;
+
+    private long totalComments;
+
+    private long trialLicenses;
+    private long permanentLicenses;
+    private long activeLicenses;
+}
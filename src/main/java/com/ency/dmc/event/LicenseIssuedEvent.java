@@ -0,0 +1,7 @@
+package com.ency.dmc.event;
+
+import java.time.LocalDateTime;
+
+// expiresAt is null for permanent licenses
+public record LicenseIssuedEvent(Long licenseId, Long productId, Long userId, boolean trial, LocalDateTime expiresAt) {
+}
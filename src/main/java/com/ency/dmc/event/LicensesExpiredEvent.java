@@ -0,0 +1,7 @@
+package com.ency.dmc.event;
+
+import java.util.List;
+
+// Published once per deactivated chunk, inside the deactivating transaction
+public record LicensesExpiredEvent(List<Long> licenseIds) {
+}
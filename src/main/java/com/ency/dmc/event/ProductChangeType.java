@@ -0,0 +1,8 @@
+package com.ency.dmc.event;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.ency.dmc.event;
+
+import com.ency.dmc.dto.ProductDto;
+
+// Published by ProductService inside the write transaction; listeners that maintain
+// in-memory views should consume it with @TransactionalEventListener (after commit).
+// product is the state after the change and is null for DELETED.
+public record ProductChangedEvent(ProductChangeType type, Long productId, ProductDto product) {
+}
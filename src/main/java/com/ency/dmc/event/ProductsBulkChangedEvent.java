@@ -0,0 +1,16 @@
+package com.ency.dmc.event;
+
+import java.util.List;
+import java.util.Map;
+
+// One event per set-based operation instead of one ProductChangedEvent per row, so
+// listeners can refresh their views once per batch. changes holds the applied values
+// (e.g. publicationStatus) and is empty for DELETED. remote events replay changes another
+// node committed: changes is empty, so listeners re-read every field of the listed ids.
+public record ProductsBulkChangedEvent(ProductChangeType type, List<Long> productIds, Map<String, Object> changes,
+                                       boolean remote) {
+
+    public ProductsBulkChangedEvent(ProductChangeType type, List<Long> productIds, Map<String, Object> changes) {
+        this(type, productIds, changes, false);
+    }
+}
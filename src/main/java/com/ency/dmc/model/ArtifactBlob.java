@@ -0,0 +1,27 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "artifact_blobs")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArtifactBlob {
+
+    // Hex SHA-256 of the whole artifact; the chunk list lives in the on-disk manifest
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false)
+    private Integer chunkCount;
+
+    // Number of product artifacts pointing at this content
+    @Column(nullable = false)
+    private Long refCount;
+}
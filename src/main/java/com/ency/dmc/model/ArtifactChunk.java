@@ -0,0 +1,24 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "artifact_chunks")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArtifactChunk {
+
+    // Hex SHA-256 of the chunk bytes
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private Integer sizeBytes;
+
+    // Number of references from stored blobs; the row is removed when it drops to zero
+    @Column(nullable = false)
+    private Long refCount;
+}
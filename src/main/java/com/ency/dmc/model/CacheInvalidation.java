@@ -0,0 +1,32 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created_at", columnList = "created_at")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CacheInvalidation {
+
+    // Taken from the cache_invalidations change counter; gap-free and committed in order
+    @Id
+    private Long seq;
+
+    @Column(nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(nullable = false, length = 32)
+    private String topic;
+
+    // Comma-separated ids, at most one bulk chunk per row
+    @Column(name = "entity_keys", nullable = false, length = 10000)
+    private String keys;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
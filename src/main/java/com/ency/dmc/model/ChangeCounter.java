@@ -0,0 +1,18 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "change_counters")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ChangeCounter {
+
+    @Id
+    private String name;
+
+    // Last sequence number handed out
+    @Column(name = "counter_value", nullable = false)
+    private Long value;
+}
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "licenses")
+@Table(name = "licenses", indexes = {
+        @Index(name = "idx_licenses_active_expires", columnList = "active, expires_at")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
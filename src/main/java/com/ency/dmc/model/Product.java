@@ -2,13 +2,18 @@ package com.ency.dmc.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_status_created", columnList = "publication_status, created_at, id"),
+        @Index(name = "idx_products_status_min_version", columnList = "publication_status, min_software_version_code"),
+        @Index(name = "idx_products_change_seq", columnList = "change_seq, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -38,6 +43,9 @@ public class Product {
     // Software compatibility
     private String minSoftwareVersion;
 
+    // SoftwareVersion code of minSoftwareVersion, derived on write; null when unparseable
+    private Long minSoftwareVersionCode;
+
     // Machine info
     private String machineManufacturer;
     private String machineSeries;
@@ -75,6 +83,10 @@ public class Product {
     @Column(length = 1000)
     private String imageUrl;
 
+    // Set by ImageService uploads; imageUrl then points at the medium rendition
+    @Column(length = 1000)
+    private String thumbnailUrl;
+
     // Status
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -87,16 +99,21 @@ public class Product {
     @Column(nullable = false)
     private Visibility visibility;
 
-    // Stats
-    @Column(nullable = false)
-    @Builder.Default
-    private Integer downloadCount = 0;
+    // Download and comment counters; shares this row's id and is never written through it
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private ProductStats stats;
 
     // Ownership relation
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    // Optimistic locking; counters live in ProductStats and leave it alone
+    @Version
+    private Long version;
+
     // Timestamps
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -105,9 +122,9 @@ public class Product {
 
     private LocalDateTime publishedAt;
 
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    private List<ProductComment> comments = new ArrayList<>();
+    // ChangeSequence value of the last catalog edit; seeded rows start at 0
+    @Column(nullable = false)
+    private Long changeSeq;
 
     @PrePersist
     protected void onCreate() {
@@ -121,13 +138,15 @@ public class Product {
         if (visibility == null) {
             visibility = Visibility.PUBLIC;
         }
-        if (downloadCount == null) {
-            downloadCount = 0;
+        if (changeSeq == null) {
+            changeSeq = 0L;
         }
+        minSoftwareVersionCode = SoftwareVersion.encode(minSoftwareVersion);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        minSoftwareVersionCode = SoftwareVersion.encode(minSoftwareVersion);
     }
 }
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "product_comments")
+@Table(name = "product_comments", indexes = {
+        @Index(name = "idx_comments_product_created", columnList = "product_id, created_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -0,0 +1,58 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Hot counters of a product, kept out of the cached {@link Product} row. They change on
+ * every download and comment through bulk UPDATEs, and a bulk UPDATE on products would
+ * evict the whole products region and the filter-options query cache. This table has no
+ * cache region, so only its own rows are affected.
+ */
+@Entity
+@Table(name = "product_stats")
+@BatchSize(size = 100)
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductStats implements Persistable<Long> {
+
+    // Same value as the product id
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer downloadCount = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer commentCount = 0;
+
+    // Rows are inserted once with an assigned id, so save() must not merge (SELECT) first
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    public static ProductStats of(Long productId, int downloadCount) {
+        return ProductStats.builder().productId(productId).downloadCount(downloadCount).build();
+    }
+
+    @Override
+    public Long getId() {
+        return productId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "product_tombstones", indexes = {
+        @Index(name = "idx_tombstones_change_seq", columnList = "change_seq, product_id")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductTombstone implements Persistable<Long> {
+
+    // Id of the deleted product; identity ids are never reused
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Written once per deleted product, so save() must not merge (SELECT) first
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public Long getId() {
+        return productId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ency.dmc.model;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses version strings such as "SprutCAM X 17", "17.2" or "X16.1.3" into a single
+ * comparable code: major in the high bits, then minor and patch (16 bits each). The
+ * version is the first standalone number, optionally glued to an "X" or "v" prefix.
+ * Parenthesized notes and numbers attached to other words ("64-bit", "SP2", "x64") are
+ * ignored; a second standalone number makes the string ambiguous.
+ */
+public final class SoftwareVersion {
+
+    private static final Pattern VERSION = Pattern.compile(
+            "(?<![\\p{L}\\d.])(?:X|[Vv])?(\\d{1,9})(?:\\.(\\d{1,5}))?(?:\\.(\\d{1,5}))?(?![\\p{L}\\d.]|-\\p{L})");
+    private static final Pattern PARENTHESIZED = Pattern.compile("\\([^)]*\\)");
+    private static final int PART_BITS = 16;
+    private static final int PART_MAX = (1 << PART_BITS) - 1;
+
+    private SoftwareVersion() {
+    }
+
+    // Returns null when the text contains no version number, or more than one
+    public static Long encode(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        Matcher m = VERSION.matcher(PARENTHESIZED.matcher(text).replaceAll(" "));
+        if (!m.find()) {
+            return null;
+        }
+        long major = Long.parseLong(m.group(1));
+        long minor = part(m.group(2));
+        long patch = part(m.group(3));
+        if (m.find()) {
+            return null;
+        }
+        return (major << (2 * PART_BITS)) | (minor << PART_BITS) | patch;
+    }
+
+    private static long part(String digits) {
+        return digits == null ? 0 : Math.min(Integer.parseInt(digits), PART_MAX);
+    }
+}
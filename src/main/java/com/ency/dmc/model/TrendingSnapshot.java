@@ -0,0 +1,23 @@
+package com.ency.dmc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "trending_snapshots")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class TrendingSnapshot {
+
+    @Id
+    private Long productId;
+
+    // Decayed download score as of snapshotAt
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(nullable = false)
+    private LocalDateTime snapshotAt;
+}
@@ -0,0 +1,26 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.ArtifactBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArtifactBlobRepository extends JpaRepository<ArtifactBlob, String> {
+
+    @Query("SELECT COALESCE(SUM(b.sizeBytes * b.refCount), 0) FROM ArtifactBlob b")
+    long sumReferencedBytes();
+
+    @Query("SELECT COALESCE(SUM(b.refCount), 0) FROM ArtifactBlob b")
+    long sumReferences();
+
+    @Modifying
+    @Query("UPDATE ArtifactBlob b SET b.refCount = b.refCount + :delta WHERE b.sha256 = :sha256")
+    int adjustRefCount(@Param("sha256") String sha256, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM ArtifactBlob b WHERE b.sha256 = :sha256 AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
@@ -0,0 +1,29 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.ArtifactChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArtifactChunkRepository extends JpaRepository<ArtifactChunk, String> {
+
+    @Query("SELECT COALESCE(SUM(c.sizeBytes), 0) FROM ArtifactChunk c")
+    long sumStoredBytes();
+
+    @Query("SELECT c.hash FROM ArtifactChunk c WHERE c.hash IN :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    @Modifying
+    @Query("UPDATE ArtifactChunk c SET c.refCount = c.refCount + :delta WHERE c.hash IN :hashes")
+    int adjustRefCounts(@Param("hashes") Collection<String> hashes, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM ArtifactChunk c WHERE c.hash IN :hashes AND c.refCount <= 0")
+    int deleteUnreferenced(@Param("hashes") Collection<String> hashes);
+}
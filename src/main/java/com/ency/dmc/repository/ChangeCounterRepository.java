@@ -0,0 +1,30 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.ChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+
+    // Row lock is held until the surrounding transaction ends
+    @Modifying
+    @Query("UPDATE ChangeCounter c SET c.value = c.value + 1 WHERE c.name = :name")
+    int increment(@Param("name") String name);
+
+    // Reserves count values at once; same locking as increment
+    @Modifying
+    @Query("UPDATE ChangeCounter c SET c.value = c.value + :count WHERE c.name = :name")
+    int advance(@Param("name") String name, @Param("count") long count);
+
+    // Never lowers the value
+    @Modifying
+    @Query("UPDATE ChangeCounter c SET c.value = :value WHERE c.name = :name AND c.value < :value")
+    int raiseTo(@Param("name") String name, @Param("value") long value);
+
+    @Query("SELECT c.value FROM ChangeCounter c WHERE c.name = :name")
+    Long currentValue(@Param("name") String name);
+}
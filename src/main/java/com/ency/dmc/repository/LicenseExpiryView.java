@@ -0,0 +1,8 @@
+package com.ency.dmc.repository;
+
+import java.time.LocalDateTime;
+
+public interface LicenseExpiryView {
+    Long getId();
+    LocalDateTime getExpiresAt();
+}
@@ -1,9 +1,15 @@
 package com.ency.dmc.repository;
 
 import com.ency.dmc.model.License;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +20,28 @@ public interface LicenseRepository extends JpaRepository<License, Long> {
     Optional<License> findByUserIdAndProductId(Long userId, Long productId);
     Optional<License> findByLicenseKey(String licenseKey);
     boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+    @Query("SELECT DISTINCT l.product.id FROM License l WHERE l.product.id IN :productIds")
+    List<Long> findLicensedProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT l.trial AS trial, COUNT(l) AS issued, " +
+            "COALESCE(SUM(CASE WHEN l.active = true THEN 1 ELSE 0 END), 0) AS active " +
+            "FROM License l WHERE l.product.owner.id = :ownerId GROUP BY l.trial")
+    List<OwnerLicenseAggregate> aggregateByProductOwner(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT l.id FROM License l WHERE l.active = true AND l.expiresAt <= :now ORDER BY l.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT l.id FROM License l WHERE l.id IN :ids AND l.active = true AND l.expiresAt <= :now")
+    List<Long> findExpiredIdsIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT l.id AS id, l.expiresAt AS expiresAt FROM License l " +
+            "WHERE l.active = true AND l.expiresAt > :from AND l.expiresAt <= :to")
+    List<LicenseExpiryView> findExpiringBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Re-checks expiry so stale wheel entries for renewed or replaced licenses are no-ops
+    @Modifying
+    @Query("UPDATE License l SET l.active = false " +
+            "WHERE l.id IN :ids AND l.active = true AND l.expiresAt <= :now")
+    int deactivateExpired(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
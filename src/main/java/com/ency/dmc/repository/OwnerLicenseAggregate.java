@@ -0,0 +1,7 @@
+package com.ency.dmc.repository;
+
+public interface OwnerLicenseAggregate {
+    boolean isTrial();
+    long getIssued();
+    long getActive();
+}
@@ -0,0 +1,10 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.PublicationStatus;
+
+public interface OwnerStatusAggregate {
+    PublicationStatus getStatus();
+    long getProducts();
+    long getDownloads();
+    long getComments();
+}
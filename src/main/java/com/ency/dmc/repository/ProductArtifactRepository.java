@@ -0,0 +1,24 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.ProductArtifact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductArtifactRepository extends JpaRepository<ProductArtifact, Long> {
+    Optional<ProductArtifact> findByProductId(Long productId);
+
+    @Query("SELECT a.storageKey FROM ProductArtifact a WHERE a.product.id IN :productIds")
+    List<String> findStorageKeysByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductArtifact a WHERE a.product.id IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+}
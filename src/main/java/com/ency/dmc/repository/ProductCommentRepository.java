@@ -1,12 +1,38 @@
 package com.ency.dmc.repository;
 
 import com.ency.dmc.model.ProductComment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductCommentRepository extends JpaRepository<ProductComment, Long> {
-    List<ProductComment> findByProductIdOrderByCreatedAtDesc(Long productId);
+
+    // Keyset pagination over (createdAt, id) descending, served by idx_comments_product_created
+    @Query("SELECT c FROM ProductComment c JOIN FETCH c.author WHERE c.product.id = :productId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ProductComment> findFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT c FROM ProductComment c JOIN FETCH c.author WHERE c.product.id = :productId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ProductComment> findPageBefore(@Param("productId") Long productId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ProductComment c WHERE c.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductComment c WHERE c.product.id IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
 }
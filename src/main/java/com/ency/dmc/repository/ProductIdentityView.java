@@ -0,0 +1,10 @@
+package com.ency.dmc.repository;
+
+public interface ProductIdentityView {
+    Long getId();
+    String getName();
+    String getMachineManufacturer();
+    String getMachineModel();
+    String getControllerManufacturer();
+    String getControllerModel();
+}
@@ -1,16 +1,30 @@
 package com.ency.dmc.repository;
 
+import com.ency.dmc.dto.ModerationItemDto;
 import com.ency.dmc.model.*;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Product> findWithOwnerById(Long id);
 
     List<Product> findByPublicationStatus(PublicationStatus status);
 
@@ -20,17 +34,108 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     List<Product> findByMachineManufacturerIgnoreCase(String manufacturer);
 
+    // Filter option lists; results are dropped whenever the products table changes
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-filter-options")})
     @Query("SELECT DISTINCT p.machineManufacturer FROM Product p WHERE p.machineManufacturer IS NOT NULL ORDER BY p.machineManufacturer")
     List<String> findDistinctMachineManufacturers();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-filter-options")})
     @Query("SELECT DISTINCT p.controllerManufacturer FROM Product p WHERE p.controllerManufacturer IS NOT NULL ORDER BY p.controllerManufacturer")
     List<String> findDistinctControllerManufacturers();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-filter-options")})
     @Query("SELECT DISTINCT p.productOwner FROM Product p WHERE p.productOwner IS NOT NULL ORDER BY p.productOwner")
     List<String> findDistinctProductOwners();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-filter-options")})
     @Query("SELECT DISTINCT p.numberOfAxes FROM Product p WHERE p.numberOfAxes IS NOT NULL ORDER BY p.numberOfAxes")
     List<Integer> findDistinctNumberOfAxes();
 
     List<Product> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    long countByPublicationStatus(PublicationStatus status);
+
+    @Query("SELECT new com.ency.dmc.dto.ModerationItemDto(p.id, p.name, p.contentType, p.category, p.productOwner, " +
+            "o.id, o.username, p.createdAt, p.updatedAt, p.version) " +
+            "FROM Product p LEFT JOIN p.owner o WHERE p.publicationStatus = :status " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<ModerationItemDto> findQueueFirstPage(@Param("status") PublicationStatus status, Pageable pageable);
+
+    @Query("SELECT new com.ency.dmc.dto.ModerationItemDto(p.id, p.name, p.contentType, p.category, p.productOwner, " +
+            "o.id, o.username, p.createdAt, p.updatedAt, p.version) " +
+            "FROM Product p LEFT JOIN p.owner o WHERE p.publicationStatus = :status " +
+            "AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<ModerationItemDto> findQueuePageAfter(@Param("status") PublicationStatus status,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.publicationStatus = :status")
+    List<Long> findIdsByStatus(@Param("ids") Collection<Long> ids, @Param("status") PublicationStatus status);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.changeSeq = :changeSeq")
+    List<Long> findIdsByChangeSeq(@Param("ids") Collection<Long> ids, @Param("changeSeq") long changeSeq);
+
+    // Set-based status change; publishedAt is stamped only when publishing
+    @Modifying
+    @Query("UPDATE Product p SET p.publicationStatus = :to, " +
+            "p.publishedAt = CASE WHEN :publish = true THEN :now ELSE p.publishedAt END, " +
+            "p.updatedAt = :now, p.version = p.version + 1, p.changeSeq = :changeSeq " +
+            "WHERE p.id IN :ids AND p.publicationStatus = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") PublicationStatus from,
+                         @Param("to") PublicationStatus to,
+                         @Param("publish") boolean publish,
+                         @Param("now") LocalDateTime now,
+                         @Param("changeSeq") long changeSeq);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.owner " +
+            "WHERE p.changeSeq > :seq OR (p.changeSeq = :seq AND p.id > :afterId) " +
+            "ORDER BY p.changeSeq ASC, p.id ASC")
+    List<Product> findChangedAfter(@Param("seq") long seq, @Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.visibility AS visibility, o.id AS ownerId FROM Product p LEFT JOIN p.owner o")
+    List<ProductVisibilityView> findAllVisibility();
+
+    @Query("SELECT p.id AS id, p.visibility AS visibility, o.id AS ownerId FROM Product p LEFT JOIN p.owner o " +
+            "WHERE p.id IN :ids")
+    List<ProductVisibilityView> findVisibilityByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt, p.publishedAt AS publishedAt, p.name AS name, " +
+            "p.priceEur AS priceEur, p.stats.downloadCount AS downloadCount FROM Product p")
+    List<ProductSortView> findAllSortRows();
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt, p.publishedAt AS publishedAt, p.name AS name, " +
+            "p.priceEur AS priceEur, p.stats.downloadCount AS downloadCount FROM Product p WHERE p.id IN :ids")
+    List<ProductSortView> findSortRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.machineManufacturer AS machineManufacturer, " +
+            "p.machineModel AS machineModel, p.controllerManufacturer AS controllerManufacturer, " +
+            "p.controllerModel AS controllerModel FROM Product p")
+    List<ProductIdentityView> findAllIdentityRows();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.machineManufacturer AS machineManufacturer, " +
+            "p.machineModel AS machineModel, p.controllerManufacturer AS controllerManufacturer, " +
+            "p.controllerModel AS controllerModel FROM Product p WHERE p.id IN :ids")
+    List<ProductIdentityView> findIdentityRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.publicationStatus AS status, COUNT(p) AS products, " +
+            "COALESCE(SUM(p.stats.downloadCount), 0) AS downloads, COALESCE(SUM(p.stats.commentCount), 0) AS comments " +
+            "FROM Product p WHERE p.owner.id = :ownerId GROUP BY p.publicationStatus")
+    List<OwnerStatusAggregate> aggregateByOwner(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
 }
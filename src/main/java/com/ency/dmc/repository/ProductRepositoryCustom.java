@@ -0,0 +1,24 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    // Ids only, so in-memory rankings can be applied without loading entities
+    List<Long> findIds(Specification<Product> spec);
+
+    List<Long> findIds(Specification<Product> spec, Sort sort);
+
+    // By id through the second-level cache (findAllById always queries); missing ids are skipped
+    List<Product> findAllCachedById(List<Long> ids);
+
+    // Set-based update of the given attributes; bumps version, updatedAt and changeSeq like an entity save
+    int patch(Collection<Long> ids, Map<String, Object> values, LocalDateTime now, long changeSeq);
+}
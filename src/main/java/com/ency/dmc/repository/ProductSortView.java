@@ -0,0 +1,13 @@
+package com.ency.dmc.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface ProductSortView {
+    Long getId();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getPublishedAt();
+    String getName();
+    BigDecimal getPriceEur();
+    Integer getDownloadCount();
+}
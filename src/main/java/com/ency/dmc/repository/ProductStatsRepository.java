@@ -0,0 +1,26 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.ProductStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ProductStatsRepository extends JpaRepository<ProductStats, Long> {
+
+    @Modifying
+    @Query("UPDATE ProductStats s SET s.downloadCount = s.downloadCount + 1 WHERE s.productId = :id")
+    int incrementDownloadCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE ProductStats s SET s.commentCount = s.commentCount + :delta WHERE s.productId = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("DELETE FROM ProductStats s WHERE s.productId IN :ids")
+    int deleteByProductIds(@Param("ids") Collection<Long> ids);
+}
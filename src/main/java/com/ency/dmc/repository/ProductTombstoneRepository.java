@@ -0,0 +1,28 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.ProductTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    @Query("SELECT t FROM ProductTombstone t " +
+            "WHERE t.changeSeq > :seq OR (t.changeSeq = :seq AND t.productId > :afterId) " +
+            "ORDER BY t.changeSeq ASC, t.productId ASC")
+    List<ProductTombstone> findChangedAfter(@Param("seq") long seq, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT MAX(t.changeSeq) FROM ProductTombstone t WHERE t.deletedAt < :cutoff")
+    Long findMaxSeqDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM ProductTombstone t WHERE t.changeSeq <= :seq")
+    int deleteUpTo(@Param("seq") long seq);
+}
@@ -0,0 +1,9 @@
+package com.ency.dmc.repository;
+
+import com.ency.dmc.model.Visibility;
+
+public interface ProductVisibilityView {
+    Long getId();
+    Visibility getVisibility();
+    Long getOwnerId();
+}
@@ -0,0 +1,63 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Function;
+
+// Group-by / filter dimensions of the analytics snapshot, keyed by their request name
+public enum AnalyticsDimension {
+    MACHINE_MANUFACTURER("machineManufacturer", Product::getMachineManufacturer),
+    CONTROLLER_MANUFACTURER("controllerManufacturer", Product::getControllerManufacturer),
+    MACHINE_TYPE("machineType", Product::getMachineType),
+    NUMBER_OF_AXES("numberOfAxes", Product::getNumberOfAxes),
+    CONTENT_TYPE("contentType", Product::getContentType),
+    CATEGORY("category", Product::getCategory),
+    PUBLICATION_STATUS("publicationStatus", Product::getPublicationStatus),
+    VISIBILITY("visibility", Product::getVisibility),
+    PRODUCT_OWNER("productOwner", Product::getProductOwner),
+    PRICE_BAND("priceBand", p -> priceBand(p.getPriceEur()));
+
+    private static final int[] PRICE_BOUNDS = {0, 50, 100, 250, 500, 1000, 2500};
+
+    private final String key;
+    private final Function<Product, Object> extractor;
+
+    AnalyticsDimension(String key, Function<Product, Object> extractor) {
+        this.key = key;
+        this.extractor = extractor;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    String valueOf(Product product) {
+        Object value = extractor.apply(product);
+        return value != null ? value.toString() : null;
+    }
+
+    public static AnalyticsDimension fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(d -> d.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unknown analytics dimension: " + key));
+    }
+
+    // Labels sort lexically in price order, e.g. "0100-0250"
+    private static String priceBand(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        double p = price.doubleValue();
+        for (int i = PRICE_BOUNDS.length - 1; i >= 0; i--) {
+            if (p >= PRICE_BOUNDS[i]) {
+                return i == PRICE_BOUNDS.length - 1
+                        ? String.format("%04d+", PRICE_BOUNDS[i])
+                        : String.format("%04d-%04d", PRICE_BOUNDS[i], PRICE_BOUNDS[i + 1]);
+            }
+        }
+        return "negative";
+    }
+}
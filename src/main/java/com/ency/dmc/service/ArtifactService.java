@@ -0,0 +1,141 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ArtifactDto;
+import com.ency.dmc.model.Product;
+import com.ency.dmc.model.ProductArtifact;
+import com.ency.dmc.repository.ProductArtifactRepository;
+import com.ency.dmc.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArtifactService {
+
+    private final ArtifactStorage storage;
+    private final ProductArtifactRepository artifactRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Not transactional: the upload is streamed to storage first so no DB connection
+    // is held while the client is sending the file.
+    public ArtifactDto upload(Long productId, MultipartFile file) throws IOException {
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("Product not found: " + productId);
+        }
+        if (file.isEmpty()) {
+            throw new RuntimeException("Artifact file is empty");
+        }
+
+        StoredArtifact stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = storage.store(in);
+        }
+
+        String[] replacedKey = new String[1];
+        ProductArtifact artifact;
+        try {
+            artifact = transactionTemplate.execute(status -> {
+                Product product = productRepository.findById(productId)
+                        .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
+                ProductArtifact a = artifactRepository.findByProductId(productId)
+                        .orElseGet(() -> ProductArtifact.builder().product(product).build());
+                replacedKey[0] = a.getStorageKey();
+                a.setFileName(file.getOriginalFilename() != null ? file.getOriginalFilename() : "artifact.bin");
+                a.setMediaType(file.getContentType());
+                a.setSizeBytes(stored.size());
+                a.setSha256(stored.sha256());
+                a.setStorageKey(stored.key());
+                return artifactRepository.save(a);
+            });
+        } catch (RuntimeException e) {
+            releaseQuietly(stored.key());
+            throw e;
+        }
+
+        if (replacedKey[0] != null) {
+            releaseQuietly(replacedKey[0]);
+        }
+        return toDto(artifact, productId);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductArtifact getArtifact(Long productId) {
+        return artifactRepository.findByProductId(productId)
+                .orElseThrow(() -> new RuntimeException("No artifact for product: " + productId));
+    }
+
+    public Optional<Path> localFile(ProductArtifact artifact) {
+        return storage.localFile(artifact.getStorageKey());
+    }
+
+    public long transferTo(ProductArtifact artifact, long position, long count,
+                           WritableByteChannel target) throws IOException {
+        return storage.transferTo(artifact.getStorageKey(), position, count, target);
+    }
+
+    @Transactional
+    public void deleteByProductId(Long productId) {
+        artifactRepository.findByProductId(productId).ifPresent(artifact -> {
+            artifactRepository.delete(artifact);
+            String key = artifact.getStorageKey();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseQuietly(key);
+                }
+            });
+        });
+    }
+
+    @Transactional
+    public int deleteByProductIds(Collection<Long> productIds) {
+        List<String> keys = artifactRepository.findStorageKeysByProductIds(productIds);
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        artifactRepository.deleteByProductIds(productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(ArtifactService.this::releaseQuietly);
+            }
+        });
+        return keys.size();
+    }
+
+    private void releaseQuietly(String key) {
+        try {
+            storage.release(key);
+        } catch (IOException e) {
+            log.warn("Failed to release artifact {}: {}", key, e.getMessage());
+        }
+    }
+
+    private ArtifactDto toDto(ProductArtifact a, Long productId) {
+        return ArtifactDto.builder()
+                .id(a.getId())
+                .productId(productId)
+                .fileName(a.getFileName())
+                .mediaType(a.getMediaType())
+                .sizeBytes(a.getSizeBytes())
+                .sha256(a.getSha256())
+                .createdAt(a.getCreatedAt())
+                .build();
+    }
+}
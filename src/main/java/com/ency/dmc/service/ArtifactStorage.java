@@ -0,0 +1,30 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ArtifactStorageStatsDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Binary storage for product artifacts (post-processors, schemas, kits).
+ * Keys are opaque and owned by the implementation.
+ */
+public interface ArtifactStorage {
+
+    /** Streams the content to storage without holding it in memory. */
+    StoredArtifact store(InputStream in) throws IOException;
+
+    /** Copies {@code count} bytes starting at {@code position} into the target channel. */
+    long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /** The backing file when the artifact is stored contiguously, which allows sendfile. */
+    Optional<Path> localFile(String key);
+
+    /** Drops one reference to the content; storage is reclaimed once nothing refers to it. */
+    void release(String key) throws IOException;
+
+    ArtifactStorageStatsDto stats();
+}
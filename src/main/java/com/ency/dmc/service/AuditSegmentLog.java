@@ -0,0 +1,226 @@
+package com.ency.dmc.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only segmented log. Records are framed as
+ * {@code [int length][int crc32c][long sequence][payload]}, with the CRC covering sequence
+ * and payload. Appends are buffered until {@link #sync()}, which issues a single write and
+ * a single fsync for the whole batch. Segments are named after their first sequence and
+ * rotated by size; on open, a torn tail left by a crash is detected by CRC and truncated.
+ * After a failed write, {@link #rollback()} cuts the log back to the last successful sync.
+ * Not thread-safe for writers; readers only see synced data and may run concurrently.
+ */
+@Slf4j
+final class AuditSegmentLog implements Closeable {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 16;
+
+    interface FrameVisitor {
+        void visit(long sequence, byte[] payload);
+    }
+
+    interface SegmentVisitor {
+        boolean visit(Path segment) throws IOException;
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer seqBytes = ByteBuffer.allocate(Long.BYTES);
+    private ByteBuffer pending = ByteBuffer.allocateDirect(64 * 1024);
+    private FileChannel channel;
+    private long segmentSize;
+    private long nextSequence = 1;
+    // State as of the last successful sync
+    private long syncedSize;
+    private long syncedSequence = 1;
+
+    AuditSegmentLog(Path dir, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    long nextSequence() {
+        return nextSequence;
+    }
+
+    void append(long sequence, byte[] payload) throws IOException {
+        if (sequence != nextSequence) {
+            throw new IllegalStateException("Out of order audit sequence " + sequence + ", expected " + nextSequence);
+        }
+        int frame = HEADER_BYTES + payload.length;
+        long size = segmentSize + pending.position();
+        if (size > 0 && size + frame > segmentBytes) {
+            sync();
+            channel.close();
+            openSegment(sequence);
+        }
+        ensureCapacity(frame);
+        pending.putInt(payload.length).putInt(checksum(sequence, payload)).putLong(sequence).put(payload);
+        nextSequence = sequence + 1;
+    }
+
+    void sync() throws IOException {
+        if (pending.position() == 0) {
+            return;
+        }
+        pending.flip();
+        while (pending.hasRemaining()) {
+            segmentSize += channel.write(pending);
+        }
+        pending.clear();
+        channel.force(false);
+        syncedSize = segmentSize;
+        syncedSequence = nextSequence;
+    }
+
+    /**
+     * Drops everything appended since the last successful sync, including bytes a failed
+     * sync may already have written, so the same entries can be appended again.
+     */
+    void rollback() throws IOException {
+        pending.clear();
+        nextSequence = syncedSequence;
+        if (channel == null || !channel.isOpen()) {
+            openSegment(syncedSequence);
+            return;
+        }
+        if (channel.size() > syncedSize) {
+            channel.truncate(syncedSize);
+        }
+        channel.position(syncedSize);
+        segmentSize = syncedSize;
+    }
+
+    int segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    /**
+     * Visits synced segments newest first; the visitor sees each segment's frames in
+     * append order. Stops early when {@code segmentVisitor} returns false.
+     */
+    void readSegmentsNewestFirst(SegmentVisitor segmentVisitor) throws IOException {
+        List<Path> segments = segments();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (!segmentVisitor.visit(segments.get(i))) {
+                return;
+            }
+        }
+    }
+
+    static long readFrames(Path segment, FrameVisitor visitor) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(segment));
+        CRC32C check = new CRC32C();
+        while (buf.remaining() >= HEADER_BYTES) {
+            int start = buf.position();
+            int length = buf.getInt();
+            int expectedCrc = buf.getInt();
+            if (length < 0 || length > buf.remaining() - Long.BYTES) {
+                return start;
+            }
+            check.reset();
+            check.update(buf.array(), buf.position(), Long.BYTES + length);
+            if ((int) check.getValue() != expectedCrc) {
+                return start;
+            }
+            long sequence = buf.getLong();
+            byte[] payload = new byte[length];
+            buf.get(payload);
+            visitor.visit(sequence, payload);
+        }
+        return buf.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long[] lastSequence = {firstSequence(last) - 1};
+        long validEnd = readFrames(last, (seq, payload) -> lastSequence[0] = seq);
+        channel = FileChannel.open(last, StandardOpenOption.WRITE);
+        if (validEnd < channel.size()) {
+            log.warn("Truncating torn audit tail in {} at {} of {} bytes", last.getFileName(), validEnd, channel.size());
+            channel.truncate(validEnd);
+            channel.force(false);
+        }
+        channel.position(validEnd);
+        segmentSize = validEnd;
+        nextSequence = lastSequence[0] + 1;
+        syncedSize = segmentSize;
+        syncedSequence = nextSequence;
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = dir.resolve(PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        segmentSize = channel.size();
+        syncedSize = segmentSize;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> result = new ArrayList<>(files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .toList());
+            result.sort(null);
+            return result;
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private int checksum(long sequence, byte[] payload) {
+        crc.reset();
+        seqBytes.clear();
+        seqBytes.putLong(sequence).flip();
+        crc.update(seqBytes);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void ensureCapacity(int frame) {
+        if (pending.remaining() >= frame) {
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(pending.capacity() * 2, pending.position() + frame));
+        pending.flip();
+        grown.put(pending);
+        pending = grown;
+    }
+}
@@ -0,0 +1,291 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.AuditEntryDto;
+import com.ency.dmc.dto.AuditStatsDto;
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.event.LicenseIssuedEvent;
+import com.ency.dmc.event.LicensesExpiredEvent;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of product and license changes. Request threads only enqueue
+ * into a lock-free ring buffer; a single writer thread drains it in batches, appends them
+ * to the segmented log and fsyncs once per batch. A batch that fails to write is rolled
+ * back and retried with backoff; meanwhile the buffer fills and producers wait for the
+ * writer instead of dropping entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditService {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int MAX_QUERY_LIMIT = 1000;
+    private static final long MIN_RETRY_MILLIS = 10;
+    private static final long MAX_RETRY_MILLIS = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.audit.dir:${java.io.tmpdir}/dmc/audit}")
+    private Path dir;
+
+    @Value("${app.audit.segment-size:16MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.audit.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${app.audit.batch-size:512}")
+    private int batchSize;
+
+    private RingBuffer<AuditEntryDto> buffer;
+    private AuditSegmentLog segmentLog;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean writerIdle;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong backPressureWaits = new AtomicLong();
+    // Written by the writer thread only
+    private volatile long written;
+    private volatile long batches;
+    private volatile long writeFailures;
+
+    @PostConstruct
+    void start() throws IOException {
+        segmentLog = new AuditSegmentLog(dir, segmentSize.toBytes());
+        buffer = new RingBuffer<>(bufferCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit log at {}, next sequence {}", dir, segmentLog.nextSequence());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        segmentLog.close();
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        ProductDto product = event.product();
+        if (product != null) {
+            details.put("name", product.getName());
+            details.put("publicationStatus", product.getPublicationStatus());
+            details.put("version", product.getVersion());
+            details.put("ownerId", product.getOwnerId());
+        }
+        record("PRODUCT_" + event.type().name(), "product", event.productId(), details);
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (event.remote()) {
+            return; // audited by the node that made the change
+        }
+        String action = "PRODUCT_" + event.type().name();
+        for (Long id : event.productIds()) {
+            Map<String, Object> details = new LinkedHashMap<>(event.changes());
+            details.put("bulk", true);
+            record(action, "product", id, details);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLicenseIssued(LicenseIssuedEvent event) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("productId", event.productId());
+        details.put("userId", event.userId());
+        details.put("trial", event.trial());
+        details.put("expiresAt", event.expiresAt());
+        record("LICENSE_ISSUED", "license", event.licenseId(), details);
+    }
+
+    @TransactionalEventListener
+    public void onLicensesExpired(LicensesExpiredEvent event) {
+        for (Long id : event.licenseIds()) {
+            record("LICENSE_EXPIRED", "license", id, Map.of());
+        }
+    }
+
+    public void record(String action, String entityType, Long entityId, Map<String, Object> details) {
+        AuditEntryDto entry = AuditEntryDto.builder()
+                .timestamp(Instant.now())
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .details(details)
+                .build();
+        while (!buffer.offer(entry)) {
+            if (!running) {
+                log.warn("Audit writer stopped, entry not recorded: {} {} {}", action, entityType, entityId);
+                return;
+            }
+            backPressureWaits.incrementAndGet();
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        recorded.incrementAndGet();
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public List<AuditEntryDto> query(String action, String entityType, Long entityId, Instant since, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_QUERY_LIMIT);
+        List<AuditEntryDto> result = new ArrayList<>();
+        try {
+            segmentLog.readSegmentsNewestFirst(segment -> {
+                List<AuditEntryDto> matches = new ArrayList<>();
+                boolean[] reachedSince = {false};
+                AuditSegmentLog.readFrames(segment, (sequence, payload) -> {
+                    AuditEntryDto entry = readEntry(sequence, payload);
+                    if (since != null && entry.getTimestamp().isBefore(since)) {
+                        reachedSince[0] = true;
+                        return;
+                    }
+                    if ((action == null || action.equalsIgnoreCase(entry.getAction()))
+                            && (entityType == null || entityType.equalsIgnoreCase(entry.getEntityType()))
+                            && (entityId == null || entityId.equals(entry.getEntityId()))) {
+                        matches.add(entry);
+                    }
+                });
+                for (int i = matches.size() - 1; i >= 0 && result.size() < max; i--) {
+                    result.add(matches.get(i));
+                }
+                return result.size() < max && !reachedSince[0];
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit log", e);
+        }
+        return result;
+    }
+
+    public AuditStatsDto stats() {
+        int segments;
+        try {
+            segments = segmentLog.segmentCount();
+        } catch (IOException e) {
+            segments = -1;
+        }
+        return AuditStatsDto.builder()
+                .recorded(recorded.get())
+                .written(written)
+                .batches(batches)
+                .backPressureWaits(backPressureWaits.get())
+                .writeFailures(writeFailures)
+                .pending(buffer.size())
+                .capacity(buffer.capacity())
+                .segments(segments)
+                .nextSequence(segmentLog.nextSequence())
+                .build();
+    }
+
+    private void drainLoop() {
+        List<AuditEntryDto> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            AuditEntryDto entry;
+            while (batch.size() < batchSize && (entry = buffer.poll()) != null) {
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) {
+                writerIdle = true;
+                if (running && buffer.size() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+                continue;
+            }
+            long retryMillis = MIN_RETRY_MILLIS;
+            while (!writeBatch(batch)) {
+                if (!running) {
+                    log.error("Audit writer stopping with {} unwritten entries", batch.size() + buffer.size());
+                    return;
+                }
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+            }
+            batch.clear();
+        }
+    }
+
+    // On failure the batch keeps the entries that still need writing
+    private boolean writeBatch(List<AuditEntryDto> batch) {
+        try {
+            for (AuditEntryDto entry : batch) {
+                long sequence = segmentLog.nextSequence();
+                entry.setSequence(sequence);
+                byte[] payload;
+                try {
+                    payload = objectMapper.writeValueAsBytes(entry);
+                } catch (JsonProcessingException e) {
+                    // Retrying cannot fix an entry that does not serialize
+                    log.error("Dropping unserializable audit entry {} {} {}",
+                            entry.getAction(), entry.getEntityType(), entry.getEntityId(), e);
+                    entry.setSequence(0);
+                    continue;
+                }
+                segmentLog.append(sequence, payload);
+            }
+            segmentLog.sync();
+            written += batch.size();
+            batches++;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            writeFailures++;
+            log.error("Failed to write {} audit entries, retrying", batch.size(), e);
+            try {
+                segmentLog.rollback();
+            } catch (IOException rollbackFailure) {
+                log.error("Failed to roll back the audit log", rollbackFailure);
+            }
+            // Entries before a segment rotation were synced and must not be written twice
+            long durable = segmentLog.nextSequence();
+            int before = batch.size();
+            batch.removeIf(entry -> entry.getSequence() > 0 && entry.getSequence() < durable);
+            written += before - batch.size();
+            return false;
+        }
+    }
+
+    private AuditEntryDto readEntry(long sequence, byte[] payload) {
+        try {
+            AuditEntryDto entry = objectMapper.readValue(payload, AuditEntryDto.class);
+            entry.setSequence(sequence);
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt audit entry " + sequence, e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.CacheBusStatsDto;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Tells the other instances of the application which cached keys changed on this one.
+ * Delivery is at least once and unordered across topics; handlers re-read from the
+ * database, so duplicates and coalesced batches are harmless.
+ */
+public interface CacheInvalidationBus {
+
+    // Inside a transaction the keys are sent only once it commits
+    void publish(CacheTopic topic, Collection<Long> keys);
+
+    // The handler gets the keys changed by other nodes; an empty set means the whole topic
+    void subscribe(CacheTopic topic, Consumer<Set<Long>> handler);
+
+    CacheBusStatsDto stats();
+}
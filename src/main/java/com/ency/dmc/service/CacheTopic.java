@@ -0,0 +1,13 @@
+package com.ency.dmc.service;
+
+// Groups of cached state other nodes must drop when keys (entity ids) change here
+public enum CacheTopic {
+    // Any product field: every product view, index and cache
+    PRODUCTS,
+    // Comments: serialized responses and the entity cache
+    PRODUCT_DETAILS,
+    // Download counts: serialized responses, once they are older than the counters max age
+    PRODUCT_DOWNLOADS,
+    // Users and username lookups used to resolve principals
+    USERS
+}
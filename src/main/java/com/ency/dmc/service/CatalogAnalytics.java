@@ -0,0 +1,338 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.AnalyticsQueryRequest;
+import com.ency.dmc.dto.AnalyticsResultDto;
+import com.ency.dmc.dto.AnalyticsRowDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.Product;
+import com.ency.dmc.model.ProductStats;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar, dictionary-encoded copy of the catalog for ad-hoc group-by queries, so
+ * analytics never scan the OLTP tables. Every dimension is an int column of dictionary
+ * codes; metrics are primitive arrays. Queries scan fixed-size row segments in parallel
+ * under a read lock and merge the partial aggregates. Rows are patched from change
+ * events and download counts; a periodic rebuild folds in anything the events missed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogAnalytics {
+
+    private static final int SEGMENT_ROWS = 4096;
+    private static final int NULL_CODE = 0;
+    // Group keys pack up to three dimension codes into one long
+    private static final int CODE_BITS = 21;
+    private static final AnalyticsDimension[] DIMENSIONS = AnalyticsDimension.values();
+
+    private final ProductRepository productRepository;
+    private final ProductStatsRepository statsRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns(0);
+    private volatile Instant rebuiltAt;
+
+    // Code 0 is reserved for null
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>(List.of("null"));
+
+        int encode(String value) {
+            if (value == null) return NULL_CODE;
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    private static final class Columns {
+        final Map<Long, Integer> rowOf = new HashMap<>();
+        final Dictionary[] dictionaries = new Dictionary[DIMENSIONS.length];
+        int[][] dims;
+        long[] downloads;
+        double[] price;
+        boolean[] live;
+        int rows;
+
+        Columns(int capacity) {
+            int cap = Math.max(capacity, 16);
+            dims = new int[DIMENSIONS.length][cap];
+            downloads = new long[cap];
+            price = new double[cap];
+            live = new boolean[cap];
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                dictionaries[d] = new Dictionary();
+            }
+        }
+
+        void upsert(Product p, int downloadCount) {
+            Integer row = rowOf.get(p.getId());
+            if (row == null) {
+                if (rows == live.length) grow();
+                row = rows++;
+                rowOf.put(p.getId(), row);
+            }
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                dims[d][row] = dictionaries[d].encode(DIMENSIONS[d].valueOf(p));
+            }
+            downloads[row] = downloadCount;
+            price[row] = p.getPriceEur() != null ? p.getPriceEur().doubleValue() : Double.NaN;
+            live[row] = true;
+        }
+
+        // Deleted rows are only marked; the next rebuild compacts them away
+        void remove(Long productId) {
+            Integer row = rowOf.remove(productId);
+            if (row != null) live[row] = false;
+        }
+
+        private void grow() {
+            int cap = live.length * 2;
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                dims[d] = Arrays.copyOf(dims[d], cap);
+            }
+            downloads = Arrays.copyOf(downloads, cap);
+            price = Arrays.copyOf(price, cap);
+            live = Arrays.copyOf(live, cap);
+        }
+    }
+
+    private static final class Aggregate {
+        long count;
+        long downloads;
+        long priced;
+        double priceSum;
+        double priceMin = Double.POSITIVE_INFINITY;
+        double priceMax = Double.NEGATIVE_INFINITY;
+
+        void add(long rowDownloads, double rowPrice) {
+            count++;
+            downloads += rowDownloads;
+            if (!Double.isNaN(rowPrice)) {
+                priced++;
+                priceSum += rowPrice;
+                priceMin = Math.min(priceMin, rowPrice);
+                priceMax = Math.max(priceMax, rowPrice);
+            }
+        }
+
+        Aggregate merge(Aggregate other) {
+            count += other.count;
+            downloads += other.downloads;
+            priced += other.priced;
+            priceSum += other.priceSum;
+            priceMin = Math.min(priceMin, other.priceMin);
+            priceMax = Math.max(priceMax, other.priceMax);
+            return this;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.analytics.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.analytics.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        List<Product> products = productRepository.findAll();
+        Map<Long, Integer> downloads = downloadCounts(statsRepository.findAll());
+        Columns fresh = new Columns(products.size());
+        products.forEach(p -> fresh.upsert(p, downloads.getOrDefault(p.getId(), 0)));
+        lock.writeLock().lock();
+        try {
+            columns = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuiltAt = Instant.now();
+        log.info("Analytics snapshot rebuilt with {} rows", fresh.rows);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            withWriteLock(c -> c.remove(event.productId()));
+        } else {
+            productRepository.findById(event.productId()).ifPresent(p -> {
+                int downloads = statsRepository.findById(p.getId()).map(ProductStats::getDownloadCount).orElse(0);
+                withWriteLock(c -> c.upsert(p, downloads));
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            withWriteLock(c -> event.productIds().forEach(c::remove));
+        } else {
+            List<Product> products = productRepository.findAllById(event.productIds());
+            Map<Long, Integer> downloads = downloadCounts(statsRepository.findAllById(event.productIds()));
+            withWriteLock(c -> products.forEach(p -> c.upsert(p, downloads.getOrDefault(p.getId(), 0))));
+        }
+    }
+
+    private static Map<Long, Integer> downloadCounts(List<ProductStats> stats) {
+        Map<Long, Integer> counts = new HashMap<>(stats.size() * 2);
+        stats.forEach(s -> counts.put(s.getProductId(), s.getDownloadCount()));
+        return counts;
+    }
+
+    // Called by ProductService alongside the counter UPDATE; counted only once it commits
+    public void recordDownload(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addDownload(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addDownload(productId);
+            }
+        });
+    }
+
+    private void addDownload(Long productId) {
+        withWriteLock(c -> {
+            Integer row = c.rowOf.get(productId);
+            if (row != null) c.downloads[row]++;
+        });
+    }
+
+    public AnalyticsResultDto query(AnalyticsQueryRequest request) {
+        long started = System.nanoTime();
+        List<String> groupByKeys = request.getGroupBy() != null ? request.getGroupBy() : List.of();
+        if (groupByKeys.size() > 3) {
+            throw new RuntimeException("At most 3 group-by dimensions are supported");
+        }
+        int[] groupBy = groupByKeys.stream().mapToInt(k -> AnalyticsDimension.fromKey(k).ordinal()).toArray();
+        Comparator<AnalyticsRowDto> order = ordering(request.getOrderBy());
+
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            boolean[][] accepted = acceptedCodes(c, request.getFilters());
+            int rows = c.rows;
+            int segments = (rows + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+
+            Map<Long, Aggregate> groups = IntStream.range(0, segments).parallel()
+                    .mapToObj(s -> scan(c, s * SEGMENT_ROWS, Math.min(rows, (s + 1) * SEGMENT_ROWS), groupBy, accepted))
+                    .reduce(new HashMap<>(), CatalogAnalytics::mergeGroups);
+
+            List<AnalyticsRowDto> result = groups.entrySet().stream()
+                    .map(e -> toRow(c, groupBy, e.getKey(), e.getValue()))
+                    .sorted(order)
+                    .limit(request.getLimit())
+                    .toList();
+            return AnalyticsResultDto.builder()
+                    .groupBy(groupByKeys)
+                    .rows(result)
+                    .groups(groups.size())
+                    .scannedRows(rows)
+                    .tookMicros((System.nanoTime() - started) / 1000)
+                    .snapshotRebuiltAt(rebuiltAt)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<Long, Aggregate> scan(Columns c, int from, int to, int[] groupBy, boolean[][] accepted) {
+        Map<Long, Aggregate> groups = new HashMap<>();
+        rows:
+        for (int row = from; row < to; row++) {
+            if (!c.live[row]) continue;
+            for (int d = 0; d < accepted.length; d++) {
+                if (accepted[d] != null && !accepted[d][c.dims[d][row]]) continue rows;
+            }
+            long key = 0;
+            for (int g : groupBy) {
+                key = (key << CODE_BITS) | c.dims[g][row];
+            }
+            groups.computeIfAbsent(key, k -> new Aggregate()).add(c.downloads[row], c.price[row]);
+        }
+        return groups;
+    }
+
+    private static Map<Long, Aggregate> mergeGroups(Map<Long, Aggregate> into, Map<Long, Aggregate> from) {
+        Map<Long, Aggregate> merged = new HashMap<>(into);
+        from.forEach((k, v) -> merged.merge(k, v, (a, b) -> new Aggregate().merge(a).merge(b)));
+        return merged;
+    }
+
+    // Per dimension, which dictionary codes pass the filter; null means unfiltered
+    private static boolean[][] acceptedCodes(Columns c, Map<String, List<String>> filters) {
+        boolean[][] accepted = new boolean[DIMENSIONS.length][];
+        if (filters == null) return accepted;
+        filters.forEach((key, values) -> {
+            int d = AnalyticsDimension.fromKey(key).ordinal();
+            Dictionary dict = c.dictionaries[d];
+            boolean[] codes = new boolean[dict.values.size()];
+            for (String v : values) {
+                Integer code = "null".equals(v) ? Integer.valueOf(NULL_CODE) : dict.codes.get(v);
+                if (code != null) codes[code] = true;
+            }
+            accepted[d] = codes;
+        });
+        return accepted;
+    }
+
+    private static AnalyticsRowDto toRow(Columns c, int[] groupBy, long key, Aggregate a) {
+        int[] codes = new int[groupBy.length];
+        long mask = (1L << CODE_BITS) - 1;
+        for (int i = groupBy.length - 1; i >= 0; i--, key >>>= CODE_BITS) {
+            codes[i] = (int) (key & mask);
+        }
+        Map<String, String> group = new LinkedHashMap<>();
+        for (int i = 0; i < groupBy.length; i++) {
+            group.put(DIMENSIONS[groupBy[i]].key(),
+                    codes[i] == NULL_CODE ? null : c.dictionaries[groupBy[i]].values.get(codes[i]));
+        }
+        return AnalyticsRowDto.builder()
+                .group(group)
+                .count(a.count)
+                .downloads(a.downloads)
+                .avgPrice(a.priced > 0 ? a.priceSum / a.priced : null)
+                .minPrice(a.priced > 0 ? a.priceMin : null)
+                .maxPrice(a.priced > 0 ? a.priceMax : null)
+                .build();
+    }
+
+    private static Comparator<AnalyticsRowDto> ordering(String orderBy) {
+        Comparator<AnalyticsRowDto> byMetric = switch (orderBy == null ? "count" : orderBy) {
+            case "count" -> Comparator.comparingLong(AnalyticsRowDto::getCount);
+            case "downloads" -> Comparator.comparingLong(AnalyticsRowDto::getDownloads);
+            case "avgPrice" -> Comparator.comparing(AnalyticsRowDto::getAvgPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "minPrice" -> Comparator.comparing(AnalyticsRowDto::getMinPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "maxPrice" -> Comparator.comparing(AnalyticsRowDto::getMaxPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> throw new RuntimeException("Unknown analytics metric: " + orderBy);
+        };
+        return byMetric.reversed();
+    }
+
+    private void withWriteLock(Consumer<Columns> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(columns);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
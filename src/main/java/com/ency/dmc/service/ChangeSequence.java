@@ -0,0 +1,48 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.ChangeCounter;
+import com.ency.dmc.repository.ChangeCounterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Monotonic catalog change sequence backing delta sync. Each value is taken by
+ * incrementing a single counter row inside the writing transaction; the row lock is
+ * held until commit, so catalog writers commit in sequence order and a reader that has
+ * seen sequence N can never later observe a committed change numbered N or below.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeSequence {
+
+    static final String PRODUCTS = "products";
+
+    private final ChangeCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!counterRepository.existsById(PRODUCTS)) {
+                counterRepository.save(new ChangeCounter(PRODUCTS, 0L));
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        if (counterRepository.increment(PRODUCTS) == 0) {
+            throw new IllegalStateException("Change counter missing: " + PRODUCTS);
+        }
+        return counterRepository.currentValue(PRODUCTS);
+    }
+
+    public long current() {
+        Long value = counterRepository.currentValue(PRODUCTS);
+        return value != null ? value : 0L;
+    }
+}
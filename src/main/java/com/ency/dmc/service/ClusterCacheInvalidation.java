@@ -0,0 +1,154 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.Product;
+import com.ency.dmc.model.User;
+import com.ency.dmc.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Connects this node's caches to the invalidation bus. Product events are forwarded as
+ * they are published (the bus sends them after commit). Product keys from other nodes are
+ * evicted from the second-level cache first and then replayed as remote bulk events, so
+ * the indexes, the JSON cache and the change feed refresh through their usual listeners.
+ * Licenses have no node-local cache and use no topic.
+ */
+@Component
+@Slf4j
+public class ClusterCacheInvalidation {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String FILTER_OPTIONS_REGION = "product-filter-options";
+    private static final String USER_LOOKUPS_REGION = "user-lookups";
+
+    private final CacheInvalidationBus bus;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductJsonCache jsonCache;
+    private final VisibilityIndex visibilityIndex;
+    private final SortOrderIndex sortOrderIndex;
+    private final SimilarProductIndex similarProductIndex;
+    private final CatalogAnalytics catalogAnalytics;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final Cache secondLevelCache;
+
+    public ClusterCacheInvalidation(CacheInvalidationBus bus, ProductRepository productRepository,
+                                    TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                                    ProductJsonCache jsonCache, VisibilityIndex visibilityIndex,
+                                    SortOrderIndex sortOrderIndex, SimilarProductIndex similarProductIndex,
+                                    CatalogAnalytics catalogAnalytics, NearDuplicateIndex nearDuplicateIndex,
+                                    EntityManagerFactory entityManagerFactory) {
+        this.bus = bus;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.jsonCache = jsonCache;
+        this.visibilityIndex = visibilityIndex;
+        this.sortOrderIndex = sortOrderIndex;
+        this.similarProductIndex = similarProductIndex;
+        this.catalogAnalytics = catalogAnalytics;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        bus.subscribe(CacheTopic.PRODUCTS, this::onRemoteProducts);
+        bus.subscribe(CacheTopic.PRODUCT_DETAILS, this::onRemoteProductDetails);
+        bus.subscribe(CacheTopic.PRODUCT_DOWNLOADS, this::onRemoteProductDownloads);
+        bus.subscribe(CacheTopic.USERS, this::onRemoteUsers);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        bus.publish(CacheTopic.PRODUCTS, List.of(event.productId()));
+    }
+
+    @EventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (!event.remote()) {
+            bus.publish(CacheTopic.PRODUCTS, event.productIds());
+        }
+    }
+
+    private void onRemoteProducts(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            resetProducts();
+            return;
+        }
+        ids.forEach(id -> secondLevelCache.evictEntityData(Product.class, id));
+        secondLevelCache.evictQueryRegion(FILTER_OPTIONS_REGION);
+
+        // Listeners run after this transaction commits, on the bus thread
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> all = new ArrayList<>(ids);
+            List<Long> existing = new ArrayList<>(all.size());
+            for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+                existing.addAll(productRepository.findExistingIds(all.subList(from, Math.min(from + CHUNK_SIZE, all.size()))));
+            }
+            List<Long> deleted = new ArrayList<>(ids);
+            deleted.removeAll(new HashSet<>(existing));
+            if (!existing.isEmpty()) {
+                eventPublisher.publishEvent(new ProductsBulkChangedEvent(ProductChangeType.UPDATED, existing, Map.of(), true));
+            }
+            if (!deleted.isEmpty()) {
+                eventPublisher.publishEvent(new ProductsBulkChangedEvent(ProductChangeType.DELETED, deleted, Map.of(), true));
+            }
+        });
+    }
+
+    private void onRemoteProductDetails(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            resetProducts();
+            return;
+        }
+        ids.forEach(id -> {
+            secondLevelCache.evictEntityData(Product.class, id);
+            jsonCache.invalidate(id);
+        });
+    }
+
+    private void onRemoteProductDownloads(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            jsonCache.clear();
+            sortOrderIndex.rebuild();
+            return;
+        }
+        ids.forEach(jsonCache::countersChanged);
+        sortOrderIndex.recordDownloads(ids);
+    }
+
+    private void onRemoteUsers(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            secondLevelCache.evictEntityData(User.class);
+        } else {
+            ids.forEach(id -> secondLevelCache.evictEntityData(User.class, id));
+        }
+        secondLevelCache.evictQueryRegion(USER_LOOKUPS_REGION);
+    }
+
+    private void resetProducts() {
+        log.info("Rebuilding product caches after missed invalidations");
+        secondLevelCache.evictEntityData(Product.class);
+        secondLevelCache.evictQueryRegion(FILTER_OPTIONS_REGION);
+        jsonCache.clear();
+        visibilityIndex.rebuild();
+        sortOrderIndex.rebuild();
+        similarProductIndex.rebuild();
+        catalogAnalytics.rebuild();
+        nearDuplicateIndex.rebuild();
+    }
+}
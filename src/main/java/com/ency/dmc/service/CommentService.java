@@ -0,0 +1,110 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.CommentDto;
+import com.ency.dmc.dto.CommentPageDto;
+import com.ency.dmc.model.ProductComment;
+import com.ency.dmc.model.User;
+import com.ency.dmc.model.UserRole;
+import com.ency.dmc.repository.ProductCommentRepository;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductStatsRepository;
+import com.ency.dmc.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CommentService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ProductCommentRepository commentRepository;
+    private final ProductRepository productRepository;
+    private final ProductStatsRepository statsRepository;
+    private final UserRepository userRepository;
+    private final ProductJsonCache jsonCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final ProductService productService;
+
+    // Same visibility rule as the product detail: a hidden product's comments do not exist
+    public CommentPageDto getComments(Long productId, String cursor, int size, String username) {
+        productService.requireVisible(productId, productService.viewerFor(username));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether a next page exists without a COUNT
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ProductComment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findFirstPage(productId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = commentRepository.findPageBefore(productId, position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductComment> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ProductComment last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CommentPageDto.builder()
+                .items(page.stream().map(c -> toDto(c, productId)).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Transactional
+    public CommentDto addComment(Long productId, String username, String text) {
+        User author = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        productService.requireVisible(productId, new Viewer(author.getId(), author.getRole()));
+        if (statsRepository.adjustCommentCount(productId, 1) == 0) {
+            throw new RuntimeException("Product not found: " + productId);
+        }
+
+        ProductComment comment = ProductComment.builder()
+                .text(text)
+                .product(productRepository.getReferenceById(productId))
+                .author(author)
+                .build();
+        comment = commentRepository.save(comment);
+        jsonCache.invalidateAfterCommit(productId);
+        invalidationBus.publish(CacheTopic.PRODUCT_DETAILS, List.of(productId));
+        return toDto(comment, productId);
+    }
+
+    @Transactional
+    public void deleteComment(Long productId, Long commentId, String username) {
+        ProductComment comment = commentRepository.findById(commentId)
+                .filter(c -> c.getProduct().getId().equals(productId))
+                .orElseThrow(() -> new RuntimeException("Comment not found: " + commentId));
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        if (!comment.getAuthor().getId().equals(user.getId()) && user.getRole() != UserRole.ADMIN) {
+            throw new RuntimeException("Not allowed to delete comment: " + commentId);
+        }
+
+        commentRepository.delete(comment);
+        statsRepository.adjustCommentCount(productId, -1);
+        jsonCache.invalidateAfterCommit(productId);
+        invalidationBus.publish(CacheTopic.PRODUCT_DETAILS, List.of(productId));
+    }
+
+    private CommentDto toDto(ProductComment c, Long productId) {
+        return CommentDto.builder()
+                .id(c.getId())
+                .productId(productId)
+                .text(c.getText())
+                .authorId(c.getAuthor().getId())
+                .authorUsername(c.getAuthor().getUsername())
+                .authorFullName(c.getAuthor().getFullName())
+                .createdAt(c.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,392 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ArtifactStorageStatsDto;
+import com.ency.dmc.model.ArtifactBlob;
+import com.ency.dmc.model.ArtifactChunk;
+import com.ency.dmc.repository.ArtifactBlobRepository;
+import com.ency.dmc.repository.ArtifactChunkRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Deduplicating artifact store. Content is split with {@link ContentDefinedChunker},
+ * every chunk is stored once under its SHA-256, and an artifact is a manifest listing
+ * its chunks. Kits that share a schema or post-processor core therefore share chunks.
+ *
+ * <p>Reference counts live in the database: blobs count the product artifacts that
+ * point at them, chunks count the blob manifests that contain them. Counts change through
+ * atomic UPDATEs and rows are removed when the count reaches zero; the garbage collector
+ * then deletes files that have no row and have not been touched for the grace period.
+ * It re-checks both under the same lock an upload takes to reuse a chunk, so an upload
+ * that is reusing a chunk concurrently never loses it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.artifacts.store", havingValue = "cas", matchIfMissing = true)
+@Slf4j
+public class ContentAddressedArtifactStorage implements ArtifactStorage {
+
+    private static final int HASH_BYTES = 32;
+    private static final int CHUNK_SIZE = 500;
+
+    private final ArtifactChunkRepository chunkRepository;
+    private final ArtifactBlobRepository blobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Serializes reference count bookkeeping; chunking, hashing and file IO stay outside
+    private final ReentrantLock refLock = new ReentrantLock();
+
+    private final LongAdder ingestedArtifacts = new LongAdder();
+    private final LongAdder ingestedBytes = new LongAdder();
+    private final LongAdder ingestNanos = new LongAdder();
+
+    @Value("${app.artifacts.dir}")
+    private Path rootDir;
+
+    @Value("${app.artifacts.gc-grace:PT1H}")
+    private Duration gcGrace;
+
+    private Path tmpDir;
+    private Path chunksDir;
+    private Path manifestsDir;
+
+    private record ChunkRef(String hash, int length) {
+    }
+
+    public ContentAddressedArtifactStorage(ArtifactChunkRepository chunkRepository,
+                                           ArtifactBlobRepository blobRepository,
+                                           PlatformTransactionManager transactionManager) {
+        this.chunkRepository = chunkRepository;
+        this.blobRepository = blobRepository;
+        // Releases are triggered from after-commit callbacks, where joining the caller's
+        // finished transaction would silently drop the update
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        tmpDir = Files.createDirectories(rootDir.resolve("tmp"));
+        chunksDir = Files.createDirectories(rootDir.resolve("chunks"));
+        manifestsDir = Files.createDirectories(rootDir.resolve("manifests"));
+        log.info("Content-addressed artifact storage at {}", rootDir.toAbsolutePath());
+    }
+
+    @Override
+    public StoredArtifact store(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        MessageDigest whole = FileSystemArtifactStorage.newSha256();
+        MessageDigest chunkDigest = FileSystemArtifactStorage.newSha256();
+        HexFormat hex = HexFormat.of();
+
+        List<ChunkRef> manifest = new ArrayList<>();
+        long size = 0;
+        int newChunks = 0;
+        ContentDefinedChunker chunker = new ContentDefinedChunker(in);
+        for (byte[] chunk = chunker.next(); chunk != null; chunk = chunker.next()) {
+            whole.update(chunk);
+            String hash = hex.formatHex(chunkDigest.digest(chunk));
+            if (writeChunkIfAbsent(hash, chunk)) {
+                newChunks++;
+            }
+            manifest.add(new ChunkRef(hash, chunk.length));
+            size += chunk.length;
+        }
+        String sha256 = hex.formatHex(whole.digest());
+        long totalSize = size;
+
+        refLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> addReference(sha256, totalSize, manifest));
+        } finally {
+            refLock.unlock();
+        }
+
+        long elapsed = System.nanoTime() - started;
+        ingestedArtifacts.increment();
+        ingestedBytes.add(size);
+        ingestNanos.add(elapsed);
+        log.info("Stored artifact {} ({} bytes, {} chunks, {} new) in {} ms",
+                sha256, size, manifest.size(), newChunks, elapsed / 1_000_000);
+        return new StoredArtifact(sha256, size, sha256);
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        List<ChunkRef> manifest = readManifest(key);
+        long offset = 0;
+        long transferred = 0;
+        for (ChunkRef ref : manifest) {
+            long chunkEnd = offset + ref.length();
+            if (chunkEnd > position + transferred && transferred < count) {
+                long from = position + transferred - offset;
+                long n = Math.min(ref.length() - from, count - transferred);
+                try (FileChannel channel = FileChannel.open(chunkPath(ref.hash()), StandardOpenOption.READ)) {
+                    long done = 0;
+                    while (done < n) {
+                        long w = channel.transferTo(from + done, n - done, target);
+                        if (w <= 0) break;
+                        done += w;
+                    }
+                    transferred += done;
+                    if (done < n) break;
+                }
+            }
+            offset = chunkEnd;
+            if (transferred >= count) break;
+        }
+        return transferred;
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        // A single-chunk artifact is stored contiguously and can still go through sendfile
+        try {
+            List<ChunkRef> manifest = readManifest(key);
+            return manifest.size() == 1 ? Optional.of(chunkPath(manifest.get(0).hash())) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void release(String key) throws IOException {
+        refLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> removeReference(key));
+        } finally {
+            refLock.unlock();
+        }
+    }
+
+    @Override
+    public ArtifactStorageStatsDto stats() {
+        long logical = blobRepository.sumReferencedBytes();
+        long physical = chunkRepository.sumStoredBytes();
+        long bytes = ingestedBytes.sum();
+        long nanos = ingestNanos.sum();
+        return ArtifactStorageStatsDto.builder()
+                .store("content-addressed")
+                .artifactReferences(blobRepository.sumReferences())
+                .logicalBytes(logical)
+                .physicalBytes(physical)
+                .dedupRatio(physical > 0 ? (double) logical / physical : 1.0)
+                .ingestedArtifacts(ingestedArtifacts.sum())
+                .ingestedBytes(bytes)
+                .ingestMillis(nanos / 1_000_000)
+                .ingestMegabytesPerSecond(nanos > 0 ? bytes / 1_048_576.0 / (nanos / 1e9) : 0)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.artifacts.gc-interval-ms:3600000}",
+            initialDelayString = "${app.artifacts.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        Instant cutoff = Instant.now().minus(gcGrace);
+        int chunks = sweep(chunksDir, hash -> chunkRepository.existsById(hash), cutoff);
+        int manifests = sweep(manifestsDir, sha -> blobRepository.existsById(sha), cutoff);
+        if (chunks > 0 || manifests > 0) {
+            log.info("Artifact GC removed {} chunks and {} manifests", chunks, manifests);
+        }
+    }
+
+    // Counts are adjusted with UPDATE ... SET ref_count = ref_count + n, never read-modify-write
+    private void addReference(String sha256, long size, List<ChunkRef> manifest) {
+        if (blobRepository.adjustRefCount(sha256, 1) > 0) {
+            return;
+        }
+
+        try {
+            writeManifest(sha256, manifest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, long[]> counts = new LinkedHashMap<>();
+        for (ChunkRef ref : manifest) {
+            counts.computeIfAbsent(ref.hash(), h -> new long[]{0, ref.length()})[0]++;
+        }
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunks(counts.keySet())) {
+            existing.addAll(chunkRepository.findExistingHashes(chunk));
+        }
+        List<ArtifactChunk> created = new ArrayList<>();
+        Map<Long, List<String>> byDelta = new HashMap<>();
+        counts.forEach((hash, c) -> {
+            if (existing.contains(hash)) {
+                byDelta.computeIfAbsent(c[0], d -> new ArrayList<>()).add(hash);
+            } else {
+                created.add(ArtifactChunk.builder().hash(hash).sizeBytes((int) c[1]).refCount(c[0]).build());
+            }
+        });
+        adjustChunkRefCounts(byDelta, 1);
+        chunkRepository.saveAll(created);
+
+        blobRepository.save(ArtifactBlob.builder()
+                .sha256(sha256)
+                .sizeBytes(size)
+                .chunkCount(manifest.size())
+                .refCount(1L)
+                .build());
+    }
+
+    private void removeReference(String sha256) {
+        if (blobRepository.adjustRefCount(sha256, -1) == 0) {
+            log.warn("Release of unknown artifact blob {}", sha256);
+            return;
+        }
+        if (blobRepository.deleteIfUnreferenced(sha256) == 0) {
+            return;
+        }
+
+        List<ChunkRef> manifest;
+        try {
+            manifest = readManifest(sha256);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Long> counts = new HashMap<>();
+        manifest.forEach(ref -> counts.merge(ref.hash(), 1L, Long::sum));
+        Map<Long, List<String>> byDelta = new HashMap<>();
+        counts.forEach((hash, n) -> byDelta.computeIfAbsent(n, d -> new ArrayList<>()).add(hash));
+        adjustChunkRefCounts(byDelta, -1);
+        for (List<String> chunk : chunks(counts.keySet())) {
+            chunkRepository.deleteUnreferenced(chunk);
+        }
+    }
+
+    // Most chunks occur once per manifest, so one UPDATE per distinct count covers them all
+    private void adjustChunkRefCounts(Map<Long, List<String>> byDelta, int sign) {
+        byDelta.forEach((delta, hashes) -> {
+            for (List<String> chunk : chunks(hashes)) {
+                chunkRepository.adjustRefCounts(chunk, sign * delta);
+            }
+        });
+    }
+
+    private static List<List<String>> chunks(Collection<String> hashes) {
+        List<String> all = new ArrayList<>(hashes);
+        List<List<String>> result = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            result.add(all.subList(from, Math.min(from + CHUNK_SIZE, all.size())));
+        }
+        return result;
+    }
+
+    private boolean writeChunkIfAbsent(String hash, byte[] chunk) throws IOException {
+        Path path = chunkPath(hash);
+        // Under the lock the GC holds while deleting, so the chunk cannot vanish between the
+        // check and the timestamp refresh that marks it as in use
+        refLock.lock();
+        try {
+            if (Files.exists(path)) {
+                Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+                return false;
+            }
+        } finally {
+            refLock.unlock();
+        }
+        Files.createDirectories(path.getParent());
+        Path tmp = Files.createTempFile(tmpDir, "chunk-", ".part");
+        try {
+            Files.write(tmp, chunk);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return true;
+    }
+
+    private void writeManifest(String sha256, List<ChunkRef> manifest) throws IOException {
+        Path path = manifestPath(sha256);
+        Files.createDirectories(path.getParent());
+        Path tmp = Files.createTempFile(tmpDir, "manifest-", ".part");
+        try {
+            HexFormat hex = HexFormat.of();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(manifest.size());
+                for (ChunkRef ref : manifest) {
+                    out.write(hex.parseHex(ref.hash()));
+                    out.writeInt(ref.length());
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private List<ChunkRef> readManifest(String sha256) throws IOException {
+        HexFormat hex = HexFormat.of();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifestPath(sha256))))) {
+            int count = in.readInt();
+            List<ChunkRef> manifest = new ArrayList<>(count);
+            byte[] hash = new byte[HASH_BYTES];
+            for (int i = 0; i < count; i++) {
+                in.readFully(hash);
+                manifest.add(new ChunkRef(hex.formatHex(hash), in.readInt()));
+            }
+            return manifest;
+        }
+    }
+
+    private int sweep(Path dir, java.util.function.Predicate<String> referenced, Instant cutoff) {
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (!isGarbage(file, referenced, cutoff)) {
+                    continue;
+                }
+                // Re-checked under the lock: an upload may have touched or referenced it since
+                refLock.lock();
+                try {
+                    if (isGarbage(file, referenced, cutoff)) {
+                        Files.deleteIfExists(file);
+                        removed++;
+                    }
+                } finally {
+                    refLock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Artifact GC failed in {}: {}", dir, e.getMessage());
+        }
+        return removed;
+    }
+
+    private static boolean isGarbage(Path file, java.util.function.Predicate<String> referenced, Instant cutoff)
+            throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                    && !referenced.test(file.getFileName().toString());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private Path chunkPath(String hash) {
+        return chunksDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path manifestPath(String sha256) {
+        return manifestsDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+}
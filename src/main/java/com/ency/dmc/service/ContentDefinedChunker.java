@@ -0,0 +1,81 @@
+package com.ency.dmc.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * FastCDC-style content-defined chunker using a gear rolling hash with normalized
+ * chunking. Cut points depend only on local content, so an edit in one part of a
+ * file does not shift the chunk boundaries of the rest.
+ */
+final class ContentDefinedChunker {
+
+    static final int MIN_SIZE = 16 * 1024;
+    static final int AVG_SIZE = 64 * 1024;
+    static final int MAX_SIZE = 256 * 1024;
+
+    // Harder to match below the average size and easier above it, which narrows
+    // the chunk size distribution around AVG_SIZE. High bits carry the longest history.
+    private static final long MASK_SMALL = 0xFFFFC00000000000L; // 18 bits
+    private static final long MASK_LARGE = 0xFFFC000000000000L; // 14 bits
+
+    // Fixed seed: cut points must be identical across restarts and nodes
+    private static final long[] GEAR = new SplittableRandom(0x5EED_C0DE_CDC1L).longs(256).toArray();
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[MAX_SIZE];
+    private int buffered;
+    private boolean eof;
+
+    ContentDefinedChunker(InputStream in) {
+        this.in = in;
+    }
+
+    /** Returns the next chunk, or {@code null} at end of stream. */
+    byte[] next() throws IOException {
+        fill();
+        if (buffered == 0) {
+            return null;
+        }
+        int cut = cutPoint(buffer, buffered);
+        byte[] chunk = Arrays.copyOf(buffer, cut);
+        System.arraycopy(buffer, cut, buffer, 0, buffered - cut);
+        buffered -= cut;
+        return chunk;
+    }
+
+    private void fill() throws IOException {
+        while (!eof && buffered < MAX_SIZE) {
+            int n = in.read(buffer, buffered, MAX_SIZE - buffered);
+            if (n < 0) {
+                eof = true;
+            } else {
+                buffered += n;
+            }
+        }
+    }
+
+    static int cutPoint(byte[] data, int length) {
+        if (length <= MIN_SIZE) {
+            return length;
+        }
+        int normal = Math.min(AVG_SIZE, length);
+        long hash = 0;
+        int i = MIN_SIZE;
+        for (; i < normal; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if ((hash & MASK_SMALL) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < length; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if ((hash & MASK_LARGE) == 0) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+}
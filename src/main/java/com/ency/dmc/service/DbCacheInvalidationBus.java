@@ -0,0 +1,299 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.CacheBusStatsDto;
+import com.ency.dmc.model.CacheInvalidation;
+import com.ency.dmc.model.ChangeCounter;
+import com.ency.dmc.repository.CacheInvalidationRepository;
+import com.ency.dmc.repository.ChangeCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Cache invalidation bus over the shared database, no broker required. Committed keys are
+ * coalesced per topic in a local outbox and written every {@code poll-interval} as rows
+ * numbered from a change counter; the counter row lock is held until commit, so rows
+ * become visible in sequence order without gaps. Every node polls for rows past the last
+ * one it applied, skips its own and hands the rest to the topic handlers, so a change is
+ * seen everywhere within about two poll intervals. Rows are pruned after
+ * {@code retention}; a node that finds rows missing (it fell that far behind) resets
+ * every topic instead.
+ */
+@Service
+@Slf4j
+public class DbCacheInvalidationBus implements CacheInvalidationBus {
+
+    static final String COUNTER = "cache_invalidations";
+    private static final int CHUNK_SIZE = 500;
+    private static final int POLL_BATCH = 1000;
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private final CacheInvalidationRepository invalidationRepository;
+    private final ChangeCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long pollIntervalMillis;
+    private final Duration retention;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<CacheTopic, List<Consumer<Set<Long>>>> handlers = new EnumMap<>(CacheTopic.class);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cache-bus");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private Map<CacheTopic, Set<Long>> outbox = new EnumMap<>(CacheTopic.class);
+    private int pendingKeys;
+
+    // Written by the poller thread only
+    private volatile long lastAppliedSeq;
+    private long lastPrunedAt;
+
+    private volatile long lastLagMillis;
+    private volatile Instant lastPollAt;
+    private final LongAdder publishedKeys = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder rowsReceived = new LongAdder();
+    private final LongAdder keysReceived = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    public DbCacheInvalidationBus(CacheInvalidationRepository invalidationRepository,
+                                  ChangeCounterRepository counterRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.cache-bus.poll-interval:PT0.5S}") Duration pollInterval,
+                                  @Value("${app.cache-bus.retention:PT1H}") Duration retention) {
+        this.invalidationRepository = invalidationRepository;
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.retention = retention;
+        for (CacheTopic topic : CacheTopic.values()) {
+            handlers.put(topic, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    // A fresh node has nothing cached yet, so it starts from the current sequence
+    @PostConstruct
+    void init() {
+        lastAppliedSeq = transactionTemplate.execute(status -> {
+            if (!counterRepository.existsById(COUNTER)) {
+                counterRepository.save(new ChangeCounter(COUNTER, 0L));
+                return 0L;
+            }
+            return counterRepository.currentValue(COUNTER);
+        });
+    }
+
+    // Own thread, so a long @Scheduled job cannot stretch the convergence lag
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::tick, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Cache invalidation bus started as node {} at sequence {}", nodeId, lastAppliedSeq);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(pollIntervalMillis * 4, TimeUnit.MILLISECONDS)) {
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Final cache invalidation flush failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void publish(CacheTopic topic, Collection<Long> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(topic, keys);
+            return;
+        }
+        List<Long> copy = List.copyOf(keys);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(topic, copy);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(CacheTopic topic, Consumer<Set<Long>> handler) {
+        handlers.get(topic).add(handler);
+    }
+
+    @Override
+    public CacheBusStatsDto stats() {
+        int pending;
+        synchronized (this) {
+            pending = pendingKeys;
+        }
+        return CacheBusStatsDto.builder()
+                .nodeId(nodeId)
+                .pendingKeys(pending)
+                .publishedKeys(publishedKeys.sum())
+                .rowsWritten(rowsWritten.sum())
+                .rowsReceived(rowsReceived.sum())
+                .keysReceived(keysReceived.sum())
+                .resets(resets.sum())
+                .lastAppliedSeq(lastAppliedSeq)
+                .lastLagMillis(lastLagMillis)
+                .lastPollAt(lastPollAt)
+                .build();
+    }
+
+    private void enqueue(CacheTopic topic, Collection<Long> keys) {
+        addPending(topic, keys);
+        publishedKeys.add(keys.size());
+    }
+
+    private synchronized void addPending(CacheTopic topic, Collection<Long> keys) {
+        Set<Long> pending = outbox.computeIfAbsent(topic, t -> new LinkedHashSet<>());
+        for (Long key : keys) {
+            if (pending.add(key)) {
+                pendingKeys++;
+            }
+        }
+    }
+
+    private synchronized Map<CacheTopic, Set<Long>> drain() {
+        Map<CacheTopic, Set<Long>> drained = outbox;
+        outbox = new EnumMap<>(CacheTopic.class);
+        pendingKeys = 0;
+        return drained;
+    }
+
+    private void tick() {
+        try {
+            flush();
+            poll();
+            prune();
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation bus tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        Map<CacheTopic, Set<Long>> drained = drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<CacheInvalidation> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        drained.forEach((topic, keys) -> {
+            List<Long> ids = new ArrayList<>(keys);
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                rows.add(CacheInvalidation.builder()
+                        .nodeId(nodeId)
+                        .topic(topic.name())
+                        .keys(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())).stream()
+                                .map(String::valueOf)
+                                .collect(Collectors.joining(",")))
+                        .createdAt(now)
+                        .build());
+            }
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                counterRepository.advance(COUNTER, rows.size());
+                long seq = counterRepository.currentValue(COUNTER) - rows.size();
+                for (CacheInvalidation row : rows) {
+                    row.setSeq(++seq);
+                }
+                invalidationRepository.saveAll(rows);
+            });
+            rowsWritten.add(rows.size());
+        } catch (RuntimeException e) {
+            // Put the keys back; they go out with the next flush
+            drained.forEach(this::addPending);
+            throw e;
+        }
+    }
+
+    private void poll() {
+        lastPollAt = Instant.now();
+        List<CacheInvalidation> rows;
+        do {
+            long after = lastAppliedSeq;
+            rows = transactionTemplate.execute(status ->
+                    invalidationRepository.findAfter(after, PageRequest.of(0, POLL_BATCH)));
+            if (rows.isEmpty()) {
+                return;
+            }
+            if (rows.get(0).getSeq() != after + 1) {
+                log.warn("Cache invalidations {}..{} already pruned; resetting all caches",
+                        after + 1, rows.get(0).getSeq() - 1);
+                resets.increment();
+                for (CacheTopic topic : CacheTopic.values()) {
+                    dispatch(topic, Set.of());
+                }
+            }
+            Map<CacheTopic, Set<Long>> received = new EnumMap<>(CacheTopic.class);
+            for (CacheInvalidation row : rows) {
+                if (nodeId.equals(row.getNodeId())) continue;
+                Set<Long> keys = received.computeIfAbsent(CacheTopic.valueOf(row.getTopic()), t -> new HashSet<>());
+                for (String key : row.getKeys().split(",")) {
+                    keys.add(Long.valueOf(key));
+                }
+                rowsReceived.increment();
+                lastLagMillis = Duration.between(
+                        row.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(), Instant.now()).toMillis();
+            }
+            received.forEach((topic, keys) -> {
+                keysReceived.add(keys.size());
+                dispatch(topic, keys);
+            });
+            lastAppliedSeq = rows.get(rows.size() - 1).getSeq();
+        } while (rows.size() == POLL_BATCH);
+    }
+
+    private void dispatch(CacheTopic topic, Set<Long> keys) {
+        for (Consumer<Set<Long>> handler : handlers.get(topic)) {
+            try {
+                handler.accept(keys);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation handler for {} failed: {}", topic, e.getMessage());
+            }
+        }
+    }
+
+    private void prune() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrunedAt < PRUNE_INTERVAL.toMillis()) {
+            return;
+        }
+        lastPrunedAt = now;
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer pruned = transactionTemplate.execute(status -> invalidationRepository.deleteCreatedBefore(cutoff));
+        if (pruned != null && pruned > 0) {
+            log.debug("Pruned {} cache invalidation rows", pruned);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ArtifactStorageStatsDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// One file per upload, no deduplication. Enabled with app.artifacts.store=plain.
+@Component
+@ConditionalOnProperty(name = "app.artifacts.store", havingValue = "plain")
+@Slf4j
+public class FileSystemArtifactStorage implements ArtifactStorage {
+
+    @Value("${app.artifacts.dir}")
+    private Path rootDir;
+
+    private Path tmpDir;
+    private Path objectsDir;
+
+    private final LongAdder ingestedArtifacts = new LongAdder();
+    private final LongAdder ingestedBytes = new LongAdder();
+    private final LongAdder ingestNanos = new LongAdder();
+
+    @PostConstruct
+    void init() throws IOException {
+        tmpDir = Files.createDirectories(rootDir.resolve("tmp"));
+        objectsDir = Files.createDirectories(rootDir.resolve("objects"));
+        log.info("Artifact storage at {}", rootDir.toAbsolutePath());
+    }
+
+    @Override
+    public StoredArtifact store(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        MessageDigest sha256 = newSha256();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, sha256)) {
+                size = Files.copy(digestIn, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String key = UUID.randomUUID().toString();
+            Path target = pathOf(key);
+            Files.createDirectories(target.getParent());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            ingestedArtifacts.increment();
+            ingestedBytes.add(size);
+            ingestNanos.add(System.nanoTime() - started);
+            return new StoredArtifact(key, size, HexFormat.of().formatHex(sha256.digest()));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathOf(key), StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                long n = channel.transferTo(position + transferred, count - transferred, target);
+                if (n <= 0) break;
+                transferred += n;
+            }
+            return transferred;
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        return Optional.of(pathOf(key));
+    }
+
+    @Override
+    public void release(String key) throws IOException {
+        Files.deleteIfExists(pathOf(key));
+    }
+
+    @Override
+    public ArtifactStorageStatsDto stats() {
+        long files = 0;
+        long bytes = 0;
+        try (Stream<Path> paths = Files.walk(objectsDir)) {
+            for (Path p : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files++;
+                bytes += Files.size(p);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to scan artifact storage: {}", e.getMessage());
+        }
+        long ingested = ingestedBytes.sum();
+        long nanos = ingestNanos.sum();
+        return ArtifactStorageStatsDto.builder()
+                .store("plain")
+                .artifactReferences(files)
+                .logicalBytes(bytes)
+                .physicalBytes(bytes)
+                .dedupRatio(1.0)
+                .ingestedArtifacts(ingestedArtifacts.sum())
+                .ingestedBytes(ingested)
+                .ingestMillis(nanos / 1_000_000)
+                .ingestMegabytesPerSecond(nanos > 0 ? ingested / 1_048_576.0 / (nanos / 1e9) : 0)
+                .build();
+    }
+
+    private Path pathOf(String key) {
+        return objectsDir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
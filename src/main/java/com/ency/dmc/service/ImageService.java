@@ -0,0 +1,326 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ImagePipelineStatsDto;
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Product image uploads: decode, render a thumbnail and a medium JPEG, and store both
+ * content-addressed under {@code app.images.dir}. Rendering runs on a fixed pool with a
+ * bounded queue, so at most {@code workers} decoded images are in memory at once and
+ * uploads beyond the queue are refused instead of piling up. A slot is taken before the
+ * upload is read into memory, so refused uploads cost no heap either, and files over
+ * {@code max-upload-size} are refused unread. Large sources are subsampled while
+ * decoding, so the full-resolution raster is never materialized.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageService {
+
+    public static final String URL_PREFIX = "/api/images/";
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+
+    @Value("${app.images.dir:${java.io.tmpdir}/dmc/images}")
+    private Path rootDir;
+
+    @Value("${app.images.workers:0}")
+    private int configuredWorkers;
+
+    @Value("${app.images.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.images.thumbnail-size:256}")
+    private int thumbnailSize;
+
+    @Value("${app.images.medium-size:1024}")
+    private int mediumSize;
+
+    @Value("${app.images.max-pixels:50000000}")
+    private long maxPixels;
+
+    @Value("${app.images.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${app.images.max-upload-size:10MB}")
+    private DataSize maxUploadSize;
+
+    private ThreadPoolExecutor pool;
+    // One permit per worker and queue slot
+    private Semaphore slots;
+    private Path tmpDir;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder inputBytes = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+
+    private record Renditions(String thumbnailSha, String mediumSha) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        tmpDir = Files.createDirectories(rootDir.resolve("tmp"));
+        int workers = configuredWorkers > 0 ? configuredWorkers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threads = new AtomicInteger();
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "image-worker-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        slots = new Semaphore(workers + queueCapacity);
+        log.info("Image storage at {} with {} workers", rootDir.toAbsolutePath(), workers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Not transactional: rendering can take a while and must not hold a DB connection
+    public ProductDto upload(Long productId, MultipartFile file) throws IOException {
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("Product not found: " + productId);
+        }
+        if (file.isEmpty()) {
+            throw new RuntimeException("Image file is empty");
+        }
+        if (file.getSize() > maxUploadSize.toBytes()) {
+            throw new RuntimeException("Image file too large: " + file.getSize() + " bytes, at most "
+                    + maxUploadSize.toBytes() + " allowed");
+        }
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            throw new RuntimeException("Image pipeline is busy, retry later");
+        }
+
+        Renditions renditions;
+        try {
+            byte[] data = file.getBytes();
+            Future<Renditions> task;
+            try {
+                task = pool.submit(() -> process(data));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new RuntimeException("Image pipeline is busy, retry later");
+            }
+            try {
+                renditions = task.get();
+            } catch (InterruptedException e) {
+                task.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Image upload interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IOException("Image processing failed", e.getCause());
+            }
+        } finally {
+            slots.release();
+        }
+        return productService.updateImages(productId,
+                URL_PREFIX + renditions.mediumSha() + ".jpg", URL_PREFIX + renditions.thumbnailSha() + ".jpg");
+    }
+
+    public Optional<Path> find(String sha) {
+        if (!SHA256_HEX.matcher(sha).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(sha);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public ImagePipelineStatsDto stats() {
+        long files = 0;
+        try (Stream<Path> paths = Files.walk(rootDir)) {
+            files = paths.filter(p -> Files.isRegularFile(p) && !p.startsWith(tmpDir)).count();
+        } catch (IOException e) {
+            log.warn("Failed to scan image storage: {}", e.getMessage());
+        }
+        long count = processed.sum();
+        long nanos = processingNanos.sum();
+        return ImagePipelineStatsDto.builder()
+                .workers(pool.getMaximumPoolSize())
+                .activeWorkers(pool.getActiveCount())
+                .queued(pool.getQueue().size())
+                .processed(count)
+                .failed(failed.sum())
+                .rejected(rejected.sum())
+                .inputBytes(inputBytes.sum())
+                .outputBytes(outputBytes.sum())
+                .processingMillis(nanos / 1_000_000)
+                .averageMillis(count > 0 ? nanos / 1e6 / count : 0)
+                .storedFiles(files)
+                .build();
+    }
+
+    private Renditions process(byte[] data) throws IOException {
+        long started = System.nanoTime();
+        try {
+            BufferedImage source = decode(data, mediumSize);
+            BufferedImage medium = scaleToFit(source, mediumSize);
+            BufferedImage thumbnail = scaleToFit(medium, thumbnailSize);
+            Renditions renditions = new Renditions(store(encodeJpeg(thumbnail)), store(encodeJpeg(medium)));
+            processed.increment();
+            inputBytes.add(data.length);
+            processingNanos.add(System.nanoTime() - started);
+            return renditions;
+        } catch (RuntimeException | IOException e) {
+            failed.increment();
+            throw e;
+        }
+    }
+
+    // Subsamples on read so decoded rasters stay near twice the largest rendition
+    private BufferedImage decode(byte[] data, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new RuntimeException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new RuntimeException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (targetSize * 2));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } catch (IOException e) {
+                throw new RuntimeException("Unreadable image: " + e.getMessage());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Never upscales; halves repeatedly before the final step to keep bilinear scaling sharp
+    private static BufferedImage scaleToFit(BufferedImage source, int box) {
+        double ratio = Math.min(1.0, Math.min((double) box / source.getWidth(), (double) box / source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // Always returns an opaque RGB copy; transparent areas become white
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 4);
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Identical renditions share one file; an existing file is never rewritten
+    private String store(byte[] jpeg) {
+        String sha = HexFormat.of().formatHex(FileSystemArtifactStorage.newSha256().digest(jpeg));
+        Path target = pathOf(sha);
+        if (Files.exists(target)) {
+            return sha;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(tmpDir, "image-", ".part");
+            try {
+                Files.write(tmp, jpeg);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outputBytes.add(jpeg.length);
+        return sha;
+    }
+
+    private Path pathOf(String sha) {
+        return rootDir.resolve(sha.substring(0, 2)).resolve(sha + ".jpg");
+    }
+}
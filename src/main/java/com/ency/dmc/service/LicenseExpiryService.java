@@ -0,0 +1,134 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.event.LicenseIssuedEvent;
+import com.ency.dmc.event.LicensesExpiredEvent;
+import com.ency.dmc.repository.LicenseExpiryView;
+import com.ency.dmc.repository.LicenseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deactivates expired licenses. A periodic sweep walks the (active, expires_at) index in
+ * chunks, each deactivated by one set-based UPDATE in its own short transaction. Licenses
+ * expiring before the next sweep are also put on a one-second timing wheel, so they flip
+ * within a second or two of expiry without polling the table. The wheel ticks on its own
+ * thread, so a long scheduled job elsewhere cannot hold expiries back.
+ */
+@Service
+@Slf4j
+public class LicenseExpiryService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final long TICK_MILLIS = 1000;
+
+    private final LicenseRepository licenseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration horizon;
+    private final TimingWheel wheel;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "license-expiry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public LicenseExpiryService(LicenseRepository licenseRepository,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.licenses.expiry-horizon:PT1H}") Duration horizon) {
+        this.licenseRepository = licenseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.horizon = horizon;
+        this.wheel = new TimingWheel(TICK_MILLIS, horizon.toMillis(), System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.licenses.sweep-interval-ms:900000}",
+            fixedDelayString = "${app.licenses.sweep-interval-ms:900000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int deactivated = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = licenseRepository.findExpiredIds(now, PageRequest.of(0, CHUNK_SIZE));
+                return ids.isEmpty() ? 0 : deactivate(ids, now);
+            });
+            if (count == null || count == 0) break;
+            deactivated += count;
+        }
+
+        // The sweep interval must not exceed the horizon, or expiries in between wait for the next sweep
+        List<LicenseExpiryView> upcoming = licenseRepository.findExpiringBetween(now, now.plus(horizon));
+        upcoming.forEach(l -> wheel.schedule(l.getId(), toMillis(l.getExpiresAt())));
+        if (deactivated > 0 || !upcoming.isEmpty()) {
+            log.info("License sweep deactivated {}, {} expiring within {}", deactivated, wheel.size(), horizon);
+        }
+    }
+
+    void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < due.size(); from += CHUNK_SIZE) {
+                    List<Long> chunk = due.subList(from, Math.min(from + CHUNK_SIZE, due.size()));
+                    deactivate(licenseRepository.findExpiredIdsIn(chunk, now), now);
+                }
+            });
+        } catch (RuntimeException e) {
+            // A failure must not cancel the periodic task; the next sweep picks these up
+            log.warn("License expiry tick failed for {} licenses: {}", due.size(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLicenseIssued(LicenseIssuedEvent event) {
+        if (event.expiresAt() != null) {
+            wheel.schedule(event.licenseId(), toMillis(event.expiresAt()));
+        }
+    }
+
+    private int deactivate(List<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        licenseRepository.deactivateExpired(ids, now);
+        eventPublisher.publishEvent(new LicensesExpiredEvent(List.copyOf(ids)));
+        return ids.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,10 +1,12 @@
 package com.ency.dmc.service;
 
 import com.ency.dmc.dto.LicenseDto;
+import com.ency.dmc.event.LicenseIssuedEvent;
 import com.ency.dmc.model.*;
 import com.ency.dmc.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,11 +16,13 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class LicenseService {
 
     private final LicenseRepository licenseRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.default-trial-days:30}")
     private int defaultTrialDays;
@@ -49,6 +53,8 @@ public class LicenseService {
                 .build();
 
         license = licenseRepository.save(license);
+        eventPublisher.publishEvent(new LicenseIssuedEvent(license.getId(), productId, userId, license.isTrial(),
+                license.getExpiresAt()));
         return toDto(license);
     }
 
@@ -77,6 +83,8 @@ public class LicenseService {
                 .build();
 
         license = licenseRepository.save(license);
+        eventPublisher.publishEvent(new LicenseIssuedEvent(license.getId(), productId, userId, license.isTrial(),
+                license.getExpiresAt()));
         return toDto(license);
     }
 
@@ -0,0 +1,113 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ModerationItemDto;
+import com.ency.dmc.dto.ModerationQueueDto;
+import com.ency.dmc.dto.ModerationTransitionResultDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.PublicationStatus;
+import com.ency.dmc.model.User;
+import com.ency.dmc.model.UserRole;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ModerationService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    // Keeps IN lists well below driver and planner limits
+    private static final int CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ChangeSequence changeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Oldest pending submissions first, keyset-paged on (createdAt, id)
+    public ModerationQueueDto getQueue(String username, String cursor, int size) {
+        requireModerator(username);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ModerationItemDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = productRepository.findQueueFirstPage(PublicationStatus.PENDING_REVIEW, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = productRepository.findQueuePageAfter(PublicationStatus.PENDING_REVIEW,
+                    position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ModerationItemDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ModerationItemDto last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ModerationQueueDto.builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .pendingTotal(productRepository.countByPublicationStatus(PublicationStatus.PENDING_REVIEW))
+                .build();
+    }
+
+    @Transactional
+    public ModerationTransitionResultDto transition(String username, List<Long> ids, PublicationStatus status) {
+        requireModerator(username);
+        if (status != PublicationStatus.PUBLISHED && status != PublicationStatus.REJECTED) {
+            throw new RuntimeException("Moderation can only transition to PUBLISHED or REJECTED, not " + status);
+        }
+
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Long> transitioned = new ArrayList<>(requested.size());
+        LocalDateTime now = LocalDateTime.now();
+        Long seq = null;
+        for (int from = 0; from < requested.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = requested.subList(from, Math.min(from + CHUNK_SIZE, requested.size()));
+            List<Long> pending = productRepository.findIdsByStatus(chunk, PublicationStatus.PENDING_REVIEW);
+            if (pending.isEmpty()) continue;
+            if (seq == null) {
+                seq = changeSequence.next();
+            }
+            int updated = productRepository.transitionStatus(pending, PublicationStatus.PENDING_REVIEW, status,
+                    status == PublicationStatus.PUBLISHED, now, seq);
+            if (updated < pending.size()) {
+                // Another moderator moved some of them in between; only rows stamped with our seq are ours
+                pending = productRepository.findIdsByChangeSeq(pending, seq);
+            }
+            transitioned.addAll(pending);
+        }
+
+        if (!transitioned.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsBulkChangedEvent(ProductChangeType.STATUS_CHANGED,
+                    List.copyOf(transitioned), Map.of("publicationStatus", status)));
+        }
+
+        Set<Long> done = new HashSet<>(transitioned);
+        return ModerationTransitionResultDto.builder()
+                .status(status)
+                .requested(requested.size())
+                .updated(transitioned.size())
+                .skippedIds(requested.stream().filter(id -> !done.contains(id)).toList())
+                .build();
+    }
+
+    private void requireModerator(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        if (user.getRole() != UserRole.ADMIN) {
+            throw new RuntimeException("Not allowed to moderate products: " + username);
+        }
+    }
+}
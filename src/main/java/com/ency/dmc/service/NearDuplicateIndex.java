@@ -0,0 +1,335 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.DuplicateClusterDto;
+import com.ency.dmc.dto.DuplicateClustersDto;
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.repository.ProductIdentityView;
+import com.ency.dmc.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Near-duplicate detection over product identity: name, machine manufacturer and model,
+ * controller manufacturer and model. Each field is normalized (case, accents, spacing and
+ * punctuation removed) and cut into character 3-grams; a 64-value MinHash signature
+ * estimates the Jaccard similarity of two products' shingle sets. Signatures are split
+ * into 16 bands of 4 for LSH, so a lookup only compares against products sharing a band
+ * (pairs at 0.7 similarity share one with ~99% probability). A candidate is a duplicate
+ * when the estimate reaches {@code app.duplicates.threshold} and both mention the same
+ * numbers, which keeps "DMU 50" and "DMU 70" apart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NearDuplicateIndex {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = HASHES / BANDS;
+    private static final int SHINGLE = 3;
+    private static final long[] SEEDS = new SplittableRandom(0x5eed_d00dL).longs(HASHES).toArray();
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> IDENTITY_FIELDS = Set.of(
+            "name", "machineManufacturer", "machineModel", "controllerManufacturer", "controllerModel");
+
+    // Signature plus the LSH band keys derived from it
+    public record Fingerprint(int[] signature, long[] bands, Set<String> numbers) {
+    }
+
+    private record Entry(Fingerprint fingerprint, String name) {
+    }
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.duplicates.threshold:0.7}")
+    private double threshold;
+
+    @Value("${app.duplicates.max-results:10}")
+    private int maxResults;
+
+    // Guarded by this
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, List<Long>> buckets = new HashMap<>();
+
+    public static Fingerprint fingerprint(String name, String machineManufacturer, String machineModel,
+                                          String controllerManufacturer, String controllerModel) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        addShingles(signature, 'n', name);
+        addShingles(signature, 'm', join(machineManufacturer, machineModel));
+        addShingles(signature, 'c', join(controllerManufacturer, controllerModel));
+
+        long[] bands = new long[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            long key = b;
+            for (int r = 0; r < ROWS; r++) {
+                key = mix(key * 31 + signature[b * ROWS + r]);
+            }
+            bands[b] = key;
+        }
+        return new Fingerprint(signature, bands, numbers(join(name, machineModel)));
+    }
+
+    public static Fingerprint fingerprint(ProductDto p) {
+        return fingerprint(p.getName(), p.getMachineManufacturer(), p.getMachineModel(),
+                p.getControllerManufacturer(), p.getControllerModel());
+    }
+
+    // Most similar first
+    public synchronized List<Long> findDuplicates(Fingerprint fingerprint) {
+        return rank(fingerprint, Map.of());
+    }
+
+    // For imports: products of the same batch are not indexed until it commits
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    public final class Batch {
+        private final Map<Long, Entry> added = new HashMap<>();
+
+        public List<Long> findDuplicates(Fingerprint fingerprint) {
+            synchronized (NearDuplicateIndex.this) {
+                return rank(fingerprint, added);
+            }
+        }
+
+        public void add(Long id, Fingerprint fingerprint) {
+            added.put(id, new Entry(fingerprint, null));
+        }
+    }
+
+    public synchronized DuplicateClustersDto clusters(int limit) {
+        long started = System.nanoTime();
+        List<Long> ids = new ArrayList<>(entries.keySet());
+        Collections.sort(ids);
+        Map<Long, Integer> position = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            position.put(ids.get(i), i);
+        }
+        int[] parent = new int[ids.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (List<Long> bucket : buckets.values()) {
+            for (int i = 0; i < bucket.size(); i++) {
+                for (int j = i + 1; j < bucket.size(); j++) {
+                    int a = find(parent, position.get(bucket.get(i)));
+                    int b = find(parent, position.get(bucket.get(j)));
+                    if (a != b && isDuplicate(entries.get(bucket.get(i)).fingerprint(),
+                            entries.get(bucket.get(j)).fingerprint())) {
+                        parent[a] = b;
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<Long>> groups = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            groups.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(ids.get(i));
+        }
+        List<List<Long>> clusters = groups.values().stream()
+                .filter(g -> g.size() > 1)
+                .sorted(Comparator.<List<Long>>comparingInt(List::size).reversed().thenComparing(g -> g.get(0)))
+                .toList();
+        return DuplicateClustersDto.builder()
+                .threshold(threshold)
+                .indexedProducts(entries.size())
+                .clusterCount(clusters.size())
+                .duplicateProducts(clusters.stream().mapToInt(List::size).sum())
+                .computeMillis((System.nanoTime() - started) / 1e6)
+                .clusters(clusters.stream().limit(Math.max(0, limit))
+                        .map(g -> DuplicateClusterDto.builder()
+                                .productIds(g)
+                                .names(g.stream().map(id -> entries.get(id).name()).toList())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductIdentityView> products = productRepository.findAllIdentityRows();
+        long started = System.nanoTime();
+        synchronized (this) {
+            entries.clear();
+            buckets.clear();
+            for (ProductIdentityView p : products) {
+                add(p.getId(), fingerprint(p), p.getName());
+            }
+        }
+        log.info("Near-duplicate index built for {} products in {} ms", products.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (this) {
+            remove(event.productId());
+            if (event.type() != ProductChangeType.DELETED) {
+                add(event.productId(), fingerprint(event.product()), event.product().getName());
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            synchronized (this) {
+                event.productIds().forEach(this::remove);
+            }
+        } else if (event.type() == ProductChangeType.CREATED || event.remote()
+                || event.changes().keySet().stream().anyMatch(IDENTITY_FIELDS::contains)) {
+            List<ProductIdentityView> products = new ArrayList<>(event.productIds().size());
+            List<Long> ids = event.productIds();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                products.addAll(productRepository.findIdentityRowsByIdIn(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))));
+            }
+            synchronized (this) {
+                for (ProductIdentityView p : products) {
+                    remove(p.getId());
+                    add(p.getId(), fingerprint(p), p.getName());
+                }
+            }
+        }
+    }
+
+    // Batch products are few, so they are compared directly instead of through buckets
+    private List<Long> rank(Fingerprint fingerprint, Map<Long, Entry> extra) {
+        Set<Long> candidates = new HashSet<>(extra.keySet());
+        for (long band : fingerprint.bands()) {
+            List<Long> bucket = buckets.get(band);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> found = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = extra.containsKey(id) ? extra.get(id) : entries.get(id);
+            int equal = equalPositions(fingerprint.signature(), entry.fingerprint().signature());
+            if (equal >= threshold * HASHES && fingerprint.numbers().equals(entry.fingerprint().numbers())) {
+                found.add(Map.entry(id, equal));
+            }
+        }
+        return found.stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxResults)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private boolean isDuplicate(Fingerprint a, Fingerprint b) {
+        return equalPositions(a.signature(), b.signature()) >= threshold * HASHES && a.numbers().equals(b.numbers());
+    }
+
+    private void add(Long id, Fingerprint fingerprint, String name) {
+        entries.put(id, new Entry(fingerprint, name));
+        for (long band : fingerprint.bands()) {
+            buckets.computeIfAbsent(band, k -> new ArrayList<>(2)).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        Entry old = entries.remove(id);
+        if (old == null) return;
+        for (long band : old.fingerprint().bands()) {
+            List<Long> bucket = buckets.get(band);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(band);
+                }
+            }
+        }
+    }
+
+    private static Fingerprint fingerprint(ProductIdentityView p) {
+        return fingerprint(p.getName(), p.getMachineManufacturer(), p.getMachineModel(),
+                p.getControllerManufacturer(), p.getControllerModel());
+    }
+
+    // Shingles are packed into a long (field tag + three UTF-16 chars), so nothing is allocated per shingle
+    private static void addShingles(int[] signature, char tag, String value) {
+        String s = normalize(value);
+        if (s.isEmpty()) return;
+        int last = Math.max(0, s.length() - SHINGLE);
+        for (int i = 0; i <= last; i++) {
+            long shingle = tag;
+            for (int k = 0; k < SHINGLE; k++) {
+                shingle = (shingle << 16) | (i + k < s.length() ? s.charAt(i + k) : 0);
+            }
+            for (int h = 0; h < HASHES; h++) {
+                int hash = (int) (mix(shingle ^ SEEDS[h]) >>> 32);
+                if (hash < signature[h]) {
+                    signature[h] = hash;
+                }
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) return "";
+        String s = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFKD)).replaceAll("");
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    private static Set<String> numbers(String value) {
+        if (value == null) return Set.of();
+        Set<String> numbers = new HashSet<>();
+        Matcher m = NUMBER.matcher(Normalizer.normalize(value, Normalizer.Form.NFKD));
+        while (m.find()) {
+            numbers.add(m.group());
+        }
+        return numbers;
+    }
+
+    private static String join(String a, String b) {
+        return (a != null ? a : "") + " " + (b != null ? b : "");
+    }
+
+    private static int equalPositions(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return equal;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
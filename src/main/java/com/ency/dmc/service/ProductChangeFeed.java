@@ -0,0 +1,333 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductChangeNoticeDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.PublicationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events feed of committed product changes. Connections are async
+ * SseEmitters, so idle clients hold no threads; one dispatcher thread assigns event
+ * ids, appends to a bounded replay ring and queues each batch for every subscriber.
+ * A small writer pool drains the per-subscriber queues. A client whose queue reaches
+ * {@code app.changes.subscriber-queue} is stalled: its backlog is dropped, it gets a
+ * {@code reset} event and its stream is closed, so it cannot hold up anyone else.
+ * New subscriptions are also handled by the dispatcher, so a replay from
+ * {@code Last-Event-ID} and the live stream never overlap or leave a gap.
+ * Event ids are {@code <boot>-<sequence>}; an id from another boot, or one older than
+ * the ring, gets a {@code reset} event telling the client to resynchronize.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeFeed {
+
+    private static final int MAX_BATCH = 256;
+
+    private final VisibilityIndex visibilityIndex;
+
+    @Value("${app.changes.replay-size:10000}")
+    private int replaySize;
+
+    @Value("${app.changes.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    @Value("${app.changes.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.changes.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.changes.subscriber-queue:1024}")
+    private int subscriberQueue;
+
+    @Value("${app.changes.writer-threads:4}")
+    private int writerThreads;
+
+    private record Notice(long sequence, ProductChangeNoticeDto body) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Viewer viewer;
+        final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        // Held by the one writer draining this subscriber
+        final AtomicBoolean writing = new AtomicBoolean();
+        // No further events are queued; the writer completes the emitter after the outbox
+        volatile boolean closing;
+
+        Subscriber(SseEmitter emitter, Viewer viewer) {
+            this.emitter = emitter;
+            this.viewer = viewer;
+        }
+    }
+
+    private record Subscribe(Subscriber subscriber, String lastEventId) {
+    }
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final BlockingQueue<Object> inbox = new LinkedBlockingQueue<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Dispatcher thread only
+    private final ArrayDeque<Notice> replay = new ArrayDeque<>();
+    private long sequence;
+    private Thread dispatcher;
+    private ExecutorService writers;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread t = new Thread(r, "change-feed-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        dispatcher = new Thread(this::dispatchLoop, "change-feed-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        subscribers.forEach(s -> s.emitter.complete());
+        writers.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Viewer viewer, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many change feed subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, viewer);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+        inbox.add(new Subscribe(subscriber, lastEventId));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductChangeNoticeDto.ProductChangeNoticeDtoBuilder notice = ProductChangeNoticeDto.builder()
+                .productId(event.productId())
+                .type(event.type());
+        if (event.product() != null) {
+            notice.status(event.product().getPublicationStatus()).updatedAt(event.product().getUpdatedAt());
+        } else {
+            notice.updatedAt(LocalDateTime.now());
+        }
+        inbox.add(notice.build());
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        Object status = event.changes().get("publicationStatus");
+        for (Long id : event.productIds()) {
+            inbox.add(ProductChangeNoticeDto.builder()
+                    .productId(id)
+                    .type(event.type())
+                    .status(status instanceof PublicationStatus s ? s : null)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void dispatchLoop() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                Object first = inbox.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    subscribers.forEach(s -> enqueue(s, SseEmitter.event().comment("heartbeat"), true));
+                    continue;
+                }
+                batch.add(first);
+                inbox.drainTo(batch, MAX_BATCH - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Change feed dispatch failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Object> batch) {
+        List<Notice> notices = new ArrayList<>();
+        for (Object item : batch) {
+            if (item instanceof ProductChangeNoticeDto body) {
+                Notice notice = new Notice(++sequence, body);
+                notices.add(notice);
+                replay.addLast(notice);
+                if (replay.size() > replaySize) {
+                    replay.removeFirst();
+                }
+            } else if (item instanceof Subscribe subscribe) {
+                // Notices earlier in this batch are already in the ring, so replay covers them
+                publish(notices);
+                notices.clear();
+                replayTo(subscribe);
+                if (!subscribe.subscriber().closing) {
+                    subscribers.add(subscribe.subscriber());
+                }
+            }
+        }
+        publish(notices);
+    }
+
+    private void publish(List<Notice> notices) {
+        if (notices.isEmpty()) return;
+        for (Subscriber s : subscribers) {
+            for (Notice n : notices) {
+                if (!sendNotice(s, n, true)) break;
+            }
+        }
+    }
+
+    private void replayTo(Subscribe subscribe) {
+        String lastEventId = subscribe.lastEventId();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        Long after = parseSequence(lastEventId);
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.getFirst().sequence();
+        if (after == null || after > sequence || after < oldest - 1) {
+            enqueue(subscribe.subscriber(), resetEvent(), false);
+            return;
+        }
+        // Bounded by the ring itself, so a resume is not mistaken for a stalled client
+        for (Notice n : replay) {
+            if (n.sequence() > after && !sendNotice(subscribe.subscriber(), n, false)) {
+                return;
+            }
+        }
+    }
+
+    private boolean sendNotice(Subscriber s, Notice n, boolean bounded) {
+        ProductChangeNoticeDto body = n.body();
+        if (body.getType() != ProductChangeType.DELETED && !visibilityIndex.canSee(s.viewer, body.getProductId())) {
+            return true;
+        }
+        return enqueue(s, SseEmitter.event()
+                .id(bootId + "-" + n.sequence())
+                .name("product")
+                .data(body, MediaType.APPLICATION_JSON), bounded);
+    }
+
+    // Dispatcher thread only; false once the subscriber is gone
+    private boolean enqueue(Subscriber s, SseEmitter.SseEventBuilder event, boolean bounded) {
+        if (s.closing) {
+            return false;
+        }
+        if (bounded && s.queued.get() >= subscriberQueue) {
+            log.debug("Change feed subscriber fell {} events behind; sending reset", subscriberQueue);
+            subscribers.remove(s);
+            while (s.outbox.poll() != null) {
+                s.queued.decrementAndGet();
+            }
+            add(s, resetEvent());
+            s.closing = true;
+            schedule(s);
+            return false;
+        }
+        add(s, event);
+        schedule(s);
+        return true;
+    }
+
+    private static void add(Subscriber s, SseEmitter.SseEventBuilder event) {
+        s.outbox.add(event);
+        s.queued.incrementAndGet();
+    }
+
+    private void schedule(Subscriber s) {
+        if (s.writing.compareAndSet(false, true)) {
+            writers.execute(() -> drain(s));
+        }
+    }
+
+    // Blocking writes happen here, one writer per subscriber at a time; queued events go
+    // out together, so a burst costs one flush rather than one per event
+    private void drain(Subscriber s) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> items = new LinkedHashSet<>();
+            int count = 0;
+            SseEmitter.SseEventBuilder event;
+            while ((event = s.outbox.poll()) != null || !items.isEmpty()) {
+                if (event != null) {
+                    s.queued.decrementAndGet();
+                    items.addAll(event.build());
+                    if (++count < MAX_BATCH) continue;
+                }
+                try {
+                    s.emitter.send(items);
+                } catch (IOException | IllegalStateException e) {
+                    close(s);
+                    s.outbox.clear();
+                    s.emitter.completeWithError(e);
+                    return;
+                }
+                items = new LinkedHashSet<>();
+                count = 0;
+            }
+            if (s.closing) {
+                s.emitter.complete();
+                return;
+            }
+            s.writing.set(false);
+        } while (!s.outbox.isEmpty() && s.writing.compareAndSet(false, true));
+    }
+
+    private void close(Subscriber s) {
+        s.closing = true;
+        subscribers.remove(s);
+    }
+
+    private static SseEmitter.SseEventBuilder resetEvent() {
+        return SseEmitter.event().name("reset").data("resync");
+    }
+
+    private Long parseSequence(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(bootId)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductCacheStatsDto;
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.Visibility;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized product detail responses: UTF-8 JSON plus a gzip variant, keyed by product id.
+ * Segments are LRU maps bounded by total entry bytes ({@code app.product-cache.max-bytes}).
+ * Entries are dropped after any committed write to the product. Downloads only mark the
+ * entry, which is reloaded once it is {@code app.product-cache.counters-max-age} old, so a
+ * popular product is not re-serialized on every download. A load that overlaps an
+ * invalidation of its segment is not cached, so a reader that fetched the row before a
+ * commit can never put the old bytes back.
+ */
+@Component
+@Slf4j
+public class ProductJsonCache {
+
+    private static final int SEGMENTS = 16;
+    // Map node, key, entry record and array headers
+    private static final int ENTRY_OVERHEAD = 160;
+
+    public record Entry(long version, Visibility visibility, Long ownerId, byte[] json, byte[] gzip,
+                        long loadedAt, boolean countersChanged) {
+
+        long weight() {
+            return json.length + gzip.length + ENTRY_OVERHEAD;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long maxBytes;
+    private final long countersMaxAgeMillis;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Segment {
+        final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+        long bytes;
+        // Bumped on every invalidation; loads started under an older stamp are discarded
+        long stamp;
+    }
+
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            @Value("${app.product-cache.max-bytes:32MB}") DataSize maxBytes,
+                            @Value("${app.product-cache.counters-max-age:PT30S}") Duration countersMaxAge) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes.toBytes();
+        this.countersMaxAgeMillis = countersMaxAge.toMillis();
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public Entry get(Long id) {
+        Segment segment = segmentFor(id);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.entries.get(id);
+            if (entry != null && entry.countersChanged()
+                    && System.currentTimeMillis() - entry.loadedAt() >= countersMaxAgeMillis) {
+                remove(segment, id);
+                entry = null;
+            }
+        }
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    // Take before loading the product; pass to put so stale loads are dropped
+    public long stamp(Long id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            return segment.stamp;
+        }
+    }
+
+    public Entry put(ProductDto product, long stamp) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product " + product.getId(), e);
+        }
+        Entry entry = new Entry(product.getVersion(), product.getVisibility(), product.getOwnerId(), json, gzip(json),
+                System.currentTimeMillis(), false);
+
+        long segmentLimit = maxBytes / SEGMENTS;
+        if (entry.weight() > segmentLimit) {
+            return entry;
+        }
+        Segment segment = segmentFor(product.getId());
+        synchronized (segment) {
+            if (segment.stamp != stamp) {
+                return entry;
+            }
+            Entry previous = segment.entries.put(product.getId(), entry);
+            segment.bytes += entry.weight() - (previous != null ? previous.weight() : 0);
+            Iterator<Entry> eldest = segment.entries.values().iterator();
+            while (segment.bytes > segmentLimit && eldest.hasNext()) {
+                segment.bytes -= eldest.next().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return entry;
+    }
+
+    public void invalidate(Long id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            remove(segment, id);
+        }
+    }
+
+    // Download counts may lag: the entry is kept until it reaches the counters max age
+    public void countersChanged(Long id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(id);
+            if (entry == null) {
+                // A load in flight may have read the old count
+                segment.stamp++;
+            } else if (System.currentTimeMillis() - entry.loadedAt() >= countersMaxAgeMillis) {
+                remove(segment, id);
+            } else if (!entry.countersChanged()) {
+                segment.entries.put(id, new Entry(entry.version(), entry.visibility(), entry.ownerId(),
+                        entry.json(), entry.gzip(), entry.loadedAt(), true));
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.stamp++;
+                segment.entries.clear();
+                segment.bytes = 0;
+            }
+        }
+    }
+
+    // For targeted counter UPDATEs that publish no event; outside a transaction it evicts at once
+    public void invalidateAfterCommit(Long id) {
+        afterCommit(() -> invalidate(id));
+    }
+
+    public void countersChangedAfterCommit(Long id) {
+        afterCommit(() -> countersChanged(id));
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        event.productIds().forEach(this::invalidate);
+    }
+
+    public ProductCacheStatsDto stats() {
+        int entries = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries += segment.entries.size();
+                bytes += segment.bytes;
+            }
+        }
+        return ProductCacheStatsDto.builder()
+                .entries(entries)
+                .bytes(bytes)
+                .maxBytes(maxBytes)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private void remove(Segment segment, Long id) {
+        segment.stamp++;
+        Entry removed = segment.entries.remove(id);
+        if (removed != null) {
+            segment.bytes -= removed.weight();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[(Long.hashCode(id) & 0x7fffffff) % SEGMENTS];
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3 + 32);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,41 +1,126 @@
 package com.ency.dmc.service;
 
 import com.ency.dmc.dto.*;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
 import com.ency.dmc.model.*;
+import com.ency.dmc.repository.LicenseRepository;
+import com.ency.dmc.repository.ProductCommentRepository;
 import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductStatsRepository;
+import com.ency.dmc.repository.ProductTombstoneRepository;
 import com.ency.dmc.repository.UserRepository;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ProductService {
 
+    // Keeps IN lists of set-based bulk statements well below driver and planner limits
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int MAX_SYNC_PAGE = 1000;
+
     private final ProductRepository productRepository;
+    private final ProductStatsRepository statsRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final TombstoneRetention tombstoneRetention;
+    private final ChangeSequence changeSequence;
     private final UserRepository userRepository;
+    private final ProductCommentRepository commentRepository;
+    private final LicenseRepository licenseRepository;
+    private final ArtifactService artifactService;
+    private final TrendingService trendingService;
+    private final SimilarProductIndex similarProductIndex;
+    private final VisibilityIndex visibilityIndex;
+    private final CatalogAnalytics catalogAnalytics;
+    private final SortOrderIndex sortOrderIndex;
+    private final ProductJsonCache jsonCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public Page<ProductDto> search(ProductSearchRequest request) {
-        String sortField = request.getSortBy() != null ? request.getSortBy() : "createdAt";
+    public Page<ProductDto> search(ProductSearchRequest request, String username) {
+        SortKey sortKey = SortKey.parse(request.getSortBy());
         Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDir()) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), Sort.by(direction, sortField));
+        Specification<Product> spec = buildSpecification(request, true);
+        Viewer viewer = viewerFor(username);
+
+        if (sortKey == SortKey.TRENDING) {
+            return searchTrending(spec, request, direction == Sort.Direction.ASC, viewer);
+        }
+
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(),
+                Sort.by(direction, sortKey.property()).and(Sort.by(direction, "id")));
+        // Walk the precomputed order against the filtered ids; no ORDER BY, stops at the page end
+        List<Long> filtered = visibilityIndex.retainVisible(viewer, productRepository.findIds(spec));
+        Optional<List<Long>> pageIds = sortOrderIndex.page(sortKey, direction == Sort.Direction.ASC, filtered,
+                pageable.getOffset(), pageable.getPageSize());
+        if (pageIds.isPresent()) {
+            return new PageImpl<>(loadInOrder(pageIds.get()), pageable, filtered.size());
+        }
 
-        Specification<Product> spec = buildSpecification(request);
-        Page<Product> products = productRepository.findAll(spec, pageable);
+        if (visibilityIndex.seesAll(viewer)) {
+            return productRepository.findAll(spec, pageable).map(this::toDto);
+        }
 
-        return products.map(this::toDto);
+        // Visibility is enforced on the sorted id list, so the query itself stays role-agnostic
+        List<Long> ids = visibilityIndex.retainVisible(viewer, productRepository.findIds(spec, pageable.getSort()));
+        return pageOf(ids, pageable);
     }
 
-    public List<ProductDto> findAll() {
-        return productRepository.findAll(Sort.by("createdAt").descending())
-                .stream().map(this::toDto).toList();
+    public List<ProductDto> findTrending(int limit, String username) {
+        List<Long> ids = productRepository.findIds(buildSpecification(new ProductSearchRequest(), true));
+        return loadInOrder(trendingService.top(visibilityIndex.retainVisible(viewerFor(username), ids), limit, false));
+    }
+
+    // Trending scores live in memory, so rank the filtered ids with a heap instead of an ORDER BY
+    private Page<ProductDto> searchTrending(Specification<Product> spec, ProductSearchRequest request,
+                                            boolean ascending, Viewer viewer) {
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+        List<Long> ids = visibilityIndex.retainVisible(viewer, productRepository.findIds(spec));
+        List<Long> ranked = trendingService.top(ids, (int) Math.min(pageable.getOffset() + pageable.getPageSize(),
+                Integer.MAX_VALUE), ascending);
+        List<Long> pageIds = ranked.subList((int) Math.min(pageable.getOffset(), ranked.size()), ranked.size());
+        return new PageImpl<>(loadInOrder(pageIds), pageable, ids.size());
+    }
+
+    private Page<ProductDto> pageOf(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(loadInOrder(ids.subList(from, to)), pageable, ids.size());
+    }
+
+    public List<ProductDto> findSimilar(Long id, int limit, String username) {
+        Viewer viewer = viewerFor(username);
+        requireVisible(id, viewer);
+        // Over-fetch so hidden neighbours do not leave the list short
+        List<Long> similar = visibilityIndex.retainVisible(viewer, similarProductIndex.findSimilar(id, limit * 2));
+        return loadInOrder(similar.subList(0, Math.min(limit, similar.size())));
+    }
+
+    private List<ProductDto> loadInOrder(List<Long> ids) {
+        Map<Long, Product> byId = new HashMap<>();
+        productRepository.findAllCachedById(ids).forEach(p -> byId.put(p.getId(), p));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).map(this::toDto).toList();
+    }
+
+    // Same publication and visibility rules as the public search
+    public List<ProductDto> findAll(String username) {
+        List<Long> ids = productRepository.findIds(buildSpecification(new ProductSearchRequest(), true),
+                Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+        return loadInOrder(visibilityIndex.retainVisible(viewerFor(username), ids));
     }
 
     public List<ProductDto> findByOwnerId(Long ownerId) {
@@ -43,10 +128,49 @@ public class ProductService {
                 .stream().map(this::toDto).toList();
     }
 
-    public ProductDto findById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found: " + id));
-        return toDto(product);
+    // Detail response as serialized bytes; hits skip the transaction, entity load and mapping
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductJsonCache.Entry findJsonById(Long id, String username) {
+        ProductJsonCache.Entry entry = jsonCache.get(id);
+        if (entry == null) {
+            long stamp = jsonCache.stamp(id);
+            Product product = productRepository.findWithOwnerById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found: " + id));
+            entry = jsonCache.put(toDto(product), stamp);
+        }
+        if (!visibilityIndex.canSee(viewerFor(username), entry.visibility(), entry.ownerId())) {
+            throw new RuntimeException("Product not found: " + id);
+        }
+        return entry;
+    }
+
+    // Hidden products are reported as missing so their existence does not leak
+    public void requireVisible(Long id, Viewer viewer) {
+        if (!productRepository.existsById(id) || !visibilityIndex.canSee(viewer, id)) {
+            throw new RuntimeException("Product not found: " + id);
+        }
+    }
+
+    // Uploads change a product, so only its owner or an admin may make them
+    public void requireOwner(Long id, String username) {
+        Long ownerId = productRepository.findVisibilityByIdIn(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Product not found: " + id))
+                .getOwnerId();
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        if (user.getRole() != UserRole.ADMIN && !user.getId().equals(ownerId)) {
+            throw new RuntimeException("Only the owner of product " + id + " can change it");
+        }
+    }
+
+    public Viewer viewerFor(String username) {
+        if (username == null) {
+            return Viewer.ANONYMOUS;
+        }
+        return userRepository.findByUsername(username)
+                .map(u -> new Viewer(u.getId(), u.getRole()))
+                .orElse(Viewer.ANONYMOUS);
     }
 
     @Transactional
@@ -56,6 +180,32 @@ public class ProductService {
 
     @Transactional
     public ProductDto create(ProductCreateRequest request, String ownerUsername) {
+        List<Long> duplicates = nearDuplicateIndex.findDuplicates(fingerprint(request));
+        return publish(ProductChangeType.CREATED, insert(request, findOwner(ownerUsername), duplicates));
+    }
+
+    // One transaction and one CREATED bulk event; each item is also checked against earlier items of the batch
+    @Transactional
+    public ProductImportResultDto importProducts(List<ProductCreateRequest> requests, String ownerUsername) {
+        User owner = findOwner(ownerUsername);
+        NearDuplicateIndex.Batch batch = nearDuplicateIndex.newBatch();
+        List<ProductDto> created = new ArrayList<>(requests.size());
+        for (ProductCreateRequest request : requests) {
+            NearDuplicateIndex.Fingerprint fingerprint = fingerprint(request);
+            ProductDto dto = insert(request, owner, batch.findDuplicates(fingerprint));
+            batch.add(dto.getId(), fingerprint);
+            created.add(dto);
+        }
+        eventPublisher.publishEvent(new ProductsBulkChangedEvent(ProductChangeType.CREATED,
+                created.stream().map(ProductDto::getId).toList(), Map.of()));
+        return ProductImportResultDto.builder()
+                .created(created.size())
+                .flagged((int) created.stream().filter(p -> !p.getPossibleDuplicateIds().isEmpty()).count())
+                .products(created)
+                .build();
+    }
+
+    private ProductDto insert(ProductCreateRequest request, User owner, List<Long> possibleDuplicateIds) {
         Product product = Product.builder()
                 .name(request.getName())
                 .contentType(request.getContentType())
@@ -83,21 +233,32 @@ public class ProductService {
                 .experienceStatus(request.getExperienceStatus() != null
                         ? request.getExperienceStatus() : ExperienceStatus.NOT_TESTED)
                 .visibility(request.getVisibility() != null ? request.getVisibility() : Visibility.PUBLIC)
-                .downloadCount(0)
+                .changeSeq(changeSequence.next())
+                .owner(owner)
                 .build();
 
-        if (ownerUsername != null) {
-            userRepository.findByUsername(ownerUsername).ifPresent(product::setOwner);
-        }
-
         product = productRepository.save(product);
-        return toDto(product);
+        product.setStats(statsRepository.save(ProductStats.of(product.getId(), 0)));
+        ProductDto dto = toDto(product);
+        dto.setPossibleDuplicateIds(possibleDuplicateIds);
+        return dto;
+    }
+
+    private User findOwner(String username) {
+        return username != null ? userRepository.findByUsername(username).orElse(null) : null;
+    }
+
+    private static NearDuplicateIndex.Fingerprint fingerprint(ProductCreateRequest r) {
+        return NearDuplicateIndex.fingerprint(r.getName(), r.getMachineManufacturer(), r.getMachineModel(),
+                r.getControllerManufacturer(), r.getControllerModel());
     }
 
     @Transactional
-    public ProductDto update(Long id, ProductCreateRequest request) {
+    public ProductDto update(Long id, ProductCreateRequest request, Long expectedVersion) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + id));
+        checkVersion(product, expectedVersion);
+        product.setChangeSeq(changeSequence.next());
 
         product.setName(request.getName());
         product.setContentType(request.getContentType());
@@ -119,38 +280,280 @@ public class ProductService {
         product.setTrialDays(request.getTrialDays());
         product.setSupportedCodes(request.getSupportedCodes());
         product.setSampleOutputCode(request.getSampleOutputCode());
+        if (!Objects.equals(product.getImageUrl(), request.getImageUrl())) {
+            // The thumbnail belongs to the uploaded image being replaced
+            product.setThumbnailUrl(null);
+        }
         product.setImageUrl(request.getImageUrl());
         if (request.getVisibility() != null) {
             product.setVisibility(request.getVisibility());
         }
 
-        product = productRepository.save(product);
-        return toDto(product);
+        // Flush so a concurrent edit fails here and the DTO carries the new version
+        product = productRepository.saveAndFlush(product);
+        return publish(ProductChangeType.UPDATED, toDto(product));
     }
 
     @Transactional
-    public ProductDto updateStatus(Long id, PublicationStatus status) {
+    public ProductDto updateStatus(Long id, PublicationStatus status, Long expectedVersion) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + id));
+        checkVersion(product, expectedVersion);
+        product.setChangeSeq(changeSequence.next());
         product.setPublicationStatus(status);
         if (status == PublicationStatus.PUBLISHED) {
             product.setPublishedAt(java.time.LocalDateTime.now());
         }
-        product = productRepository.save(product);
-        return toDto(product);
+        product = productRepository.saveAndFlush(product);
+        return publish(ProductChangeType.STATUS_CHANGED, toDto(product));
     }
 
     @Transactional
-    public void incrementDownloadCount(Long id) {
+    public ProductDto updateImages(Long id, String imageUrl, String thumbnailUrl) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + id));
-        product.setDownloadCount(product.getDownloadCount() + 1);
-        productRepository.save(product);
+        product.setChangeSeq(changeSequence.next());
+        product.setImageUrl(imageUrl);
+        product.setThumbnailUrl(thumbnailUrl);
+        product = productRepository.saveAndFlush(product);
+        return publish(ProductChangeType.UPDATED, toDto(product));
+    }
+
+    @Transactional
+    public void incrementDownloadCount(Long id) {
+        if (statsRepository.incrementDownloadCount(id) == 0) {
+            throw new RuntimeException("Product not found: " + id);
+        }
+        trendingService.recordDownload(id);
+        catalogAnalytics.recordDownload(id);
+        sortOrderIndex.recordDownload(id);
+        jsonCache.countersChangedAfterCommit(id);
+        invalidationBus.publish(CacheTopic.PRODUCT_DOWNLOADS, List.of(id));
     }
 
     @Transactional
     public void delete(Long id) {
+        if (!productRepository.existsById(id)) {
+            throw new RuntimeException("Product not found: " + id);
+        }
+        long seq = changeSequence.next();
+        artifactService.deleteByProductId(id);
+        commentRepository.deleteByProductId(id);
         productRepository.deleteById(id);
+        statsRepository.deleteById(id);
+        tombstoneRepository.save(tombstone(id, seq, LocalDateTime.now()));
+        trendingService.remove(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangeType.DELETED, id, null));
+    }
+
+    @Transactional
+    public BulkOperationResultDto bulkUpdate(BulkUpdateRequest request, String username) {
+        Map<String, Object> values = patchValues(request.getPatch());
+        if (values.isEmpty()) {
+            throw new RuntimeException("Bulk update has no fields to change");
+        }
+        List<Long> ids = resolveSelection(request.getIds(), request.getFilter(), username);
+
+        if (ids.isEmpty()) {
+            return BulkOperationResultDto.builder().matched(0).affected(0).skippedIds(List.of()).build();
+        }
+
+        // One sequence number for the whole batch; sync pages break ties by id
+        long seq = changeSequence.next();
+        LocalDateTime now = LocalDateTime.now();
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            affected += productRepository.patch(chunk, values, now, seq);
+        }
+        eventPublisher.publishEvent(new ProductsBulkChangedEvent(ProductChangeType.UPDATED, ids, values));
+        return BulkOperationResultDto.builder()
+                .matched(ids.size())
+                .affected(affected)
+                .skippedIds(List.of())
+                .build();
+    }
+
+    // Products with issued licenses are kept: licenses reference them and must stay verifiable
+    @Transactional
+    public BulkOperationResultDto bulkDelete(BulkDeleteRequest request, String username) {
+        List<Long> ids = resolveSelection(request.getIds(), request.getFilter(), username);
+
+        Long seq = null;
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunks(ids)) {
+            Set<Long> licensed = new HashSet<>(licenseRepository.findLicensedProductIds(chunk));
+            List<Long> deletable = new ArrayList<>(chunk.size());
+            for (Long id : chunk) {
+                (licensed.contains(id) ? skipped : deletable).add(id);
+            }
+            if (deletable.isEmpty()) continue;
+            if (seq == null) {
+                seq = changeSequence.next();
+            }
+            artifactService.deleteByProductIds(deletable);
+            commentRepository.deleteByProductIds(deletable);
+            productRepository.deleteAllByIdIn(deletable);
+            statsRepository.deleteByProductIds(deletable);
+            long batchSeq = seq;
+            tombstoneRepository.saveAll(deletable.stream().map(id -> tombstone(id, batchSeq, now)).toList());
+            deleted.addAll(deletable);
+        }
+
+        deleted.forEach(trendingService::remove);
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsBulkChangedEvent(ProductChangeType.DELETED, deleted, Map.of()));
+        }
+        return BulkOperationResultDto.builder()
+                .matched(ids.size())
+                .affected(deleted.size())
+                .skippedIds(skipped)
+                .build();
+    }
+
+    /**
+     * Catalog changes after the given sequence number, oldest first, as seen by the caller:
+     * published products they can see come back in full, everything else that changed
+     * (deleted, unpublished, or no longer visible) only by id so mirrors can drop it.
+     * A page may end inside a batch sharing one sequence number; the caller then passes
+     * afterId back with the token until hasMore is false. A token older than the
+     * tombstone retention gets an empty page with reset set instead.
+     */
+    public ProductSyncPageDto sync(Long since, Long afterId, int limit, String username) {
+        if (limit < 1 || limit > MAX_SYNC_PAGE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_SYNC_PAGE);
+        }
+        // Seeded rows carry sequence 0, so a first sync starts below it
+        long seq = since != null ? since : -1L;
+        long after = afterId != null ? afterId : Long.MAX_VALUE;
+        if (since != null) {
+            long pruned = tombstoneRetention.prunedSeq();
+            if (since < pruned || (since == pruned && afterId != null)) {
+                return ProductSyncPageDto.builder()
+                        .products(List.of())
+                        .removedIds(List.of())
+                        .token(since)
+                        .reset(true)
+                        .build();
+            }
+        }
+        // Read before the scans: anything committed later carries a higher number
+        long highWater = changeSequence.current();
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<Product> products = productRepository.findChangedAfter(seq, after, window);
+        List<ProductTombstone> tombstones = tombstoneRepository.findChangedAfter(seq, after, window);
+
+        Viewer viewer = viewerFor(username);
+        // A full sync starts from an empty mirror, so there is nothing to remove yet
+        boolean incremental = since != null;
+        List<ProductDto> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        long lastSeq = seq;
+        Long lastId = null;
+        int p = 0;
+        int t = 0;
+        // Merge both (changeSeq, id) streams; product and tombstone ids never collide
+        for (int taken = 0; taken < limit && (p < products.size() || t < tombstones.size()); taken++) {
+            boolean takeProduct = t >= tombstones.size() || (p < products.size()
+                    && compareChange(products.get(p).getChangeSeq(), products.get(p).getId(),
+                    tombstones.get(t).getChangeSeq(), tombstones.get(t).getProductId()) < 0);
+            if (takeProduct) {
+                Product product = products.get(p++);
+                if (product.getPublicationStatus() == PublicationStatus.PUBLISHED && visibilityIndex.canSee(viewer,
+                        product.getVisibility(), product.getOwner() != null ? product.getOwner().getId() : null)) {
+                    changed.add(toDto(product));
+                } else if (incremental) {
+                    removed.add(product.getId());
+                }
+                lastSeq = product.getChangeSeq();
+                lastId = product.getId();
+            } else {
+                ProductTombstone tombstone = tombstones.get(t++);
+                if (incremental) {
+                    removed.add(tombstone.getProductId());
+                }
+                lastSeq = tombstone.getChangeSeq();
+                lastId = tombstone.getProductId();
+            }
+        }
+        boolean hasMore = p < products.size() || t < tombstones.size();
+
+        return ProductSyncPageDto.builder()
+                .products(changed)
+                .removedIds(removed)
+                .token(lastId != null ? lastSeq : Math.max(seq, highWater))
+                .afterId(hasMore ? lastId : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static int compareChange(long seqA, long idA, long seqB, long idB) {
+        int bySeq = Long.compare(seqA, seqB);
+        return bySeq != 0 ? bySeq : Long.compare(idA, idB);
+    }
+
+    private static ProductTombstone tombstone(Long productId, long seq, LocalDateTime deletedAt) {
+        return ProductTombstone.builder().productId(productId).changeSeq(seq).deletedAt(deletedAt).build();
+    }
+
+    // Non-admins may only touch their own products, whatever the selection matches
+    private List<Long> resolveSelection(List<Long> ids, ProductSearchRequest filter, String username) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        if (byIds == (filter != null)) {
+            throw new RuntimeException("Specify either ids or filter");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        Specification<Product> owned = user.getRole() == UserRole.ADMIN ? null
+                : (root, query, cb) -> cb.equal(root.get("owner").get("id"), user.getId());
+
+        if (!byIds) {
+            return productRepository.findIds(buildSpecification(filter, false).and(owned));
+        }
+        List<Long> resolved = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+            Specification<Product> inChunk = (root, query, cb) -> root.get("id").in(chunk);
+            resolved.addAll(productRepository.findIds(inChunk.and(owned)));
+        }
+        return resolved;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static Map<String, Object> patchValues(ProductPatchRequest patch) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        putIfPresent(values, "kitContents", patch.getKitContents());
+        putIfPresent(values, "minSoftwareVersion", patch.getMinSoftwareVersion());
+        if (patch.getMinSoftwareVersion() != null) {
+            // Set-based updates skip entity callbacks, so derive the code here
+            values.put("minSoftwareVersionCode", SoftwareVersion.encode(patch.getMinSoftwareVersion()));
+        }
+        putIfPresent(values, "machineManufacturer", patch.getMachineManufacturer());
+        putIfPresent(values, "machineSeries", patch.getMachineSeries());
+        putIfPresent(values, "machineType", patch.getMachineType());
+        putIfPresent(values, "controllerManufacturer", patch.getControllerManufacturer());
+        putIfPresent(values, "controllerSeries", patch.getControllerSeries());
+        putIfPresent(values, "controllerModel", patch.getControllerModel());
+        putIfPresent(values, "priceEur", patch.getPriceEur());
+        putIfPresent(values, "productOwner", patch.getProductOwner());
+        putIfPresent(values, "authorName", patch.getAuthorName());
+        putIfPresent(values, "trialDays", patch.getTrialDays());
+        putIfPresent(values, "visibility", patch.getVisibility());
+        putIfPresent(values, "experienceStatus", patch.getExperienceStatus());
+        return values;
+    }
+
+    private static void putIfPresent(Map<String, Object> values, String attribute, Object value) {
+        if (value != null) {
+            values.put(attribute, value);
+        }
     }
 
     public FilterOptionsDto getFilterOptions() {
@@ -165,12 +568,26 @@ public class ProductService {
                 .build();
     }
 
-    private Specification<Product> buildSpecification(ProductSearchRequest request) {
+    private ProductDto publish(ProductChangeType type, ProductDto dto) {
+        eventPublisher.publishEvent(new ProductChangedEvent(type, dto.getId(), dto));
+        return dto;
+    }
+
+    private void checkVersion(Product product, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new VersionConflictException(product.getId(), expectedVersion, product.getVersion());
+        }
+    }
+
+    private Specification<Product> buildSpecification(ProductSearchRequest request, boolean publishedOnly) {
+        Long installedCode = parseCompatibility(request.getCompatibility());
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             // Only return PUBLISHED products for the public search
-            predicates.add(cb.equal(root.get("publicationStatus"), PublicationStatus.PUBLISHED));
+            if (publishedOnly) {
+                predicates.add(cb.equal(root.get("publicationStatus"), PublicationStatus.PUBLISHED));
+            }
 
             if (request.getQuery() != null && !request.getQuery().isBlank()) {
                 String pattern = "%" + request.getQuery().toLowerCase() + "%";
@@ -207,11 +624,28 @@ public class ProductService {
                 predicates.add(cb.equal(cb.lower(root.get("productOwner")),
                         request.getContentOwner().toLowerCase()));
             }
+            if (installedCode != null) {
+                // Range predicate on the indexed code; products without a parsable minimum run anywhere
+                predicates.add(cb.or(
+                        cb.isNull(root.get("minSoftwareVersionCode")),
+                        cb.le(root.get("minSoftwareVersionCode"), installedCode)));
+            }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    private static Long parseCompatibility(String installedVersion) {
+        if (installedVersion == null || installedVersion.isBlank()) {
+            return null;
+        }
+        Long code = SoftwareVersion.encode(installedVersion);
+        if (code == null) {
+            throw new RuntimeException("Unrecognized software version: " + installedVersion);
+        }
+        return code;
+    }
+
     private ProductDto toDto(Product p) {
         return ProductDto.builder()
                 .id(p.getId())
@@ -236,13 +670,16 @@ public class ProductService {
                 .supportedCodes(p.getSupportedCodes())
                 .sampleOutputCode(p.getSampleOutputCode())
                 .imageUrl(p.getImageUrl())
+                .thumbnailUrl(p.getThumbnailUrl())
                 .publicationStatus(p.getPublicationStatus())
                 .experienceStatus(p.getExperienceStatus())
                 .visibility(p.getVisibility())
-                .downloadCount(p.getDownloadCount())
+                .downloadCount(p.getStats().getDownloadCount())
+                .commentCount(p.getStats().getCommentCount())
                 .createdAt(p.getCreatedAt())
                 .updatedAt(p.getUpdatedAt())
                 .publishedAt(p.getPublishedAt())
+                .version(p.getVersion())
                 .ownerId(p.getOwner() != null ? p.getOwner().getId() : null)
                 .ownerUsername(p.getOwner() != null ? p.getOwner().getUsername() : null)
                 .build();
@@ -0,0 +1,189 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.config.RateLimitProperties;
+import com.ency.dmc.dto.RateLimitPolicyStatsDto;
+import com.ency.dmc.dto.RateLimitStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets, one per (policy, client). Each bucket is a single AtomicLong
+ * holding its theoretical arrival time (the GCRA form of a token bucket), so acquiring
+ * is one CAS and never blocks. Buckets live in striped maps bounded by
+ * {@code app.rate-limit.max-clients}; a bucket that has refilled completely carries no
+ * state worth keeping, so idle ones are evicted freely.
+ */
+@Service
+@EnableConfigurationProperties(RateLimitProperties.class)
+@Slf4j
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+    private static final int EVICTION_SAMPLE = 8;
+
+    public record Policy(String name, String method, PathPattern pattern, int capacity, double refillPerSecond,
+                         long emissionNanos, long burstNanos, LongAdder allowed, LongAdder throttled) {
+    }
+
+    private final RateLimitProperties properties;
+    private final List<Policy> policies;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxPerStripe;
+    private final long idleNanos;
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Stripe {
+        final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        this.policies = properties.getPolicies().stream()
+                .map(p -> {
+                    if (p.getCapacity() < 1 || p.getRefillPerSecond() <= 0) {
+                        throw new IllegalArgumentException("Invalid rate limit policy: " + p.getName());
+                    }
+                    long emission = (long) (1_000_000_000L / p.getRefillPerSecond());
+                    return new Policy(p.getName(), p.getMethod(), parser.parse(p.getPath()), p.getCapacity(),
+                            p.getRefillPerSecond(), emission, emission * (p.getCapacity() - 1),
+                            new LongAdder(), new LongAdder());
+                })
+                .toList();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxPerStripe = Math.max(1, properties.getMaxClients() / STRIPES);
+        this.idleNanos = properties.getIdleEviction().toNanos();
+        log.info("Rate limiting {} with {} policies", properties.isEnabled() ? "enabled" : "disabled", policies.size());
+    }
+
+    public Policy match(String method, String path) {
+        if (!properties.isEnabled() || policies.isEmpty()) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (Policy p : policies) {
+            if ((p.method() == null || p.method().equalsIgnoreCase(method)) && p.pattern().matches(container)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes one token for the client. Returns 0 when allowed, otherwise the nanoseconds
+     * until a token will be available.
+     */
+    public long tryAcquire(Policy policy, String clientKey) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(policy.name() + '|' + clientKey, now);
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + policy.emissionNanos();
+            long allowAt = next - policy.emissionNanos() - policy.burstNanos();
+            if (now < allowAt) {
+                policy.throttled().increment();
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                policy.allowed().increment();
+                return 0;
+            }
+        }
+    }
+
+    public RateLimitStatsDto stats() {
+        int tracked = 0;
+        for (Stripe s : stripes) {
+            tracked += s.size.get();
+        }
+        return RateLimitStatsDto.builder()
+                .trackedBuckets(tracked)
+                .evictions(evictions.sum())
+                .policies(policies.stream().map(p -> RateLimitPolicyStatsDto.builder()
+                        .name(p.name())
+                        .capacity(p.capacity())
+                        .refillPerSecond(p.refillPerSecond())
+                        .allowed(p.allowed().sum())
+                        .throttled(p.throttled().sum())
+                        .build()).toList())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Stripe s : stripes) {
+            evictIdle(s, now, Integer.MAX_VALUE);
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size.get() >= maxPerStripe) {
+            makeRoom(stripe, now);
+        }
+        // A new bucket starts full: its theoretical arrival time is "now"
+        AtomicLong created = new AtomicLong(now);
+        bucket = stripe.buckets.putIfAbsent(key, created);
+        if (bucket == null) {
+            stripe.size.incrementAndGet();
+            return created;
+        }
+        return bucket;
+    }
+
+    // Drops an idle bucket; if none qualifies, drops the fullest bucket of a small sample
+    private void makeRoom(Stripe stripe, long now) {
+        if (evictIdle(stripe, now, 1) > 0) {
+            return;
+        }
+        String victim = null;
+        long oldest = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, AtomicLong>> it = stripe.buckets.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && it.hasNext(); i++) {
+            Map.Entry<String, AtomicLong> e = it.next();
+            if (e.getValue().get() < oldest) {
+                oldest = e.getValue().get();
+                victim = e.getKey();
+            }
+        }
+        if (victim != null && stripe.buckets.remove(victim) != null) {
+            stripe.size.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+    private int evictIdle(Stripe stripe, long now, int max) {
+        int removed = 0;
+        Iterator<Map.Entry<String, AtomicLong>> it = stripe.buckets.entrySet().iterator();
+        while (it.hasNext() && removed < max) {
+            Map.Entry<String, AtomicLong> e = it.next();
+            if (now - e.getValue().get() > idleNanos && stripe.buckets.remove(e.getKey(), e.getValue())) {
+                stripe.size.decrementAndGet();
+                evictions.increment();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.CacheRegionStatsDto;
+import com.ency.dmc.dto.SecondLevelCacheStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Region-level view of Hibernate statistics (enabled by hibernate.generate_statistics)
+@Component
+public class SecondLevelCacheStats {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public SecondLevelCacheStatsDto stats() {
+        List<CacheRegionStatsDto> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(this::region)
+                .filter(Objects::nonNull)
+                .toList();
+        return SecondLevelCacheStatsDto.builder()
+                .regions(regions)
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .queryCachePuts(statistics.getQueryCachePutCount())
+                .entityLoads(statistics.getEntityLoadCount())
+                .statementsPrepared(statistics.getPrepareStatementCount())
+                .build();
+    }
+
+    private CacheRegionStatsDto region(String name) {
+        CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+        if (region == null) {
+            return null;
+        }
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        return CacheRegionStatsDto.builder()
+                .region(name)
+                .hits(hits)
+                .misses(misses)
+                .puts(region.getPutCount())
+                .hitRatio(hits + misses > 0 ? (double) hits / (hits + misses) : 0)
+                .elementsInMemory(Math.max(-1, region.getElementCountInMemory()))
+                .build();
+    }
+}
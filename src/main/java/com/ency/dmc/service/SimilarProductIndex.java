@@ -0,0 +1,220 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.*;
+import com.ency.dmc.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory "similar machines" index. Every product is reduced to a weighted feature
+ * set (machine manufacturer, controller, kinematics, content type and description
+ * tokens) kept in inverted lists. A query collects candidates from the postings of the
+ * product's selective features only, then ranks them by weighted Jaccard similarity over
+ * all features, so common ones such as machine or content type still shape the score.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarProductIndex {
+
+    private static final float W_MACHINE_MANUFACTURER = 3.0f;
+    private static final float W_CONTROLLER_MODEL = 3.0f;
+    private static final float W_CONTROLLER_MANUFACTURER = 2.0f;
+    private static final float W_MACHINE_TYPE = 2.0f;
+    private static final float W_AXES = 1.5f;
+    private static final float W_CONTENT_TYPE = 1.0f;
+    private static final float W_TOKEN = 0.25f;
+
+    private static final int MAX_TOKENS = 40;
+    // Features shared by more than this fraction of the catalog are too common to generate
+    // candidates from; they still count when scoring
+    private static final double MAX_CANDIDATE_DF = 0.2;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "the", "and", "for", "with", "this", "that", "its", "are", "from", "all", "has", "been", "into");
+
+    private final ProductRepository productRepository;
+
+    private final Map<Long, Vector> vectors = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private record Vector(String[] features, float[] weights, float total, boolean published) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> products = productRepository.findAll();
+        synchronized (this) {
+            vectors.clear();
+            postings.clear();
+            for (Product p : products) {
+                add(p.getId(), vectorOf(p.getMachineManufacturer(), p.getControllerManufacturer(),
+                        p.getControllerModel(), p.getMachineType(), p.getNumberOfAxes(), p.getContentType(),
+                        p.getDescription(), p.getPublicationStatus()));
+            }
+        }
+        log.info("Similarity index built for {} products, {} features", vectors.size(), postings.size());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            remove(event.productId());
+        } else {
+            upsert(event.product());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            synchronized (this) {
+                event.productIds().forEach(this::remove);
+            }
+            return;
+        }
+        List<Product> products = productRepository.findAllById(event.productIds());
+        synchronized (this) {
+            for (Product p : products) {
+                remove(p.getId());
+                add(p.getId(), vectorOf(p.getMachineManufacturer(), p.getControllerManufacturer(),
+                        p.getControllerModel(), p.getMachineType(), p.getNumberOfAxes(), p.getContentType(),
+                        p.getDescription(), p.getPublicationStatus()));
+            }
+        }
+    }
+
+    public synchronized void upsert(ProductDto p) {
+        remove(p.getId());
+        add(p.getId(), vectorOf(p.getMachineManufacturer(), p.getControllerManufacturer(),
+                p.getControllerModel(), p.getMachineType(), p.getNumberOfAxes(), p.getContentType(),
+                p.getDescription(), p.getPublicationStatus()));
+    }
+
+    public synchronized void remove(Long productId) {
+        Vector old = vectors.remove(productId);
+        if (old == null) return;
+        for (String f : old.features()) {
+            Set<Long> ids = postings.get(f);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(f);
+                }
+            }
+        }
+    }
+
+    // Returns up to `limit` published product ids most similar to the given product
+    public List<Long> findSimilar(Long productId, int limit) {
+        Vector query = vectors.get(productId);
+        if (query == null) {
+            return List.of();
+        }
+        int maxCandidateDf = Math.max(10, (int) (vectors.size() * MAX_CANDIDATE_DF));
+
+        Set<Long> candidates = new HashSet<>();
+        Set<Long> rarest = null;
+        Map<String, Float> queryWeights = new HashMap<>();
+        for (int i = 0; i < query.features().length; i++) {
+            String f = query.features()[i];
+            queryWeights.put(f, query.weights()[i]);
+            Set<Long> ids = postings.get(f);
+            if (ids == null) continue;
+            if (ids.size() <= maxCandidateDf) {
+                candidates.addAll(ids);
+            } else if (rarest == null || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        // A product with only common features still gets the closest of its commonest group
+        if (candidates.isEmpty() && rarest != null) {
+            candidates.addAll(rarest);
+        }
+        candidates.remove(productId);
+
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(limit + 1,
+                Map.Entry.<Long, Float>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        for (Long id : candidates) {
+            Vector v = vectors.get(id);
+            if (v == null || !v.published()) continue;
+            float inter = 0;
+            for (String f : v.features()) {
+                inter += queryWeights.getOrDefault(f, 0f);
+            }
+            float jaccard = inter / (query.total() + v.total() - inter);
+            heap.offer(Map.entry(id, jaccard));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        Long[] result = new Long[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll().getKey();
+        }
+        return Arrays.asList(result);
+    }
+
+    private void add(Long id, Vector v) {
+        vectors.put(id, v);
+        for (String f : v.features()) {
+            postings.computeIfAbsent(f, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static Vector vectorOf(String machineManufacturer, String controllerManufacturer, String controllerModel,
+                                   MachineType machineType, Integer axes, ContentType contentType,
+                                   String description, PublicationStatus status) {
+        Map<String, Float> features = new LinkedHashMap<>();
+        putIfPresent(features, "mm:", machineManufacturer, W_MACHINE_MANUFACTURER);
+        putIfPresent(features, "cm:", controllerManufacturer, W_CONTROLLER_MANUFACTURER);
+        putIfPresent(features, "cmod:", controllerModel, W_CONTROLLER_MODEL);
+        if (machineType != null && machineType != MachineType.OTHER) {
+            features.put("mt:" + machineType, W_MACHINE_TYPE);
+        }
+        if (axes != null && axes > 0) {
+            features.put("ax:" + axes, W_AXES);
+        }
+        if (contentType != null) {
+            features.put("ct:" + contentType, W_CONTENT_TYPE);
+        }
+        if (description != null) {
+            int tokens = 0;
+            for (String token : description.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (tokens >= MAX_TOKENS) break;
+                if (token.length() < 3 || STOPWORDS.contains(token)) continue;
+                if (features.putIfAbsent("t:" + token, W_TOKEN) == null) {
+                    tokens++;
+                }
+            }
+        }
+
+        String[] names = features.keySet().toArray(new String[0]);
+        float[] weights = new float[names.length];
+        float total = 0;
+        for (int i = 0; i < names.length; i++) {
+            weights[i] = features.get(names[i]);
+            total += weights[i];
+        }
+        return new Vector(names, weights, total, status == PublicationStatus.PUBLISHED);
+    }
+
+    private static void putIfPresent(Map<String, Float> features, String prefix, String value, float weight) {
+        if (value == null) return;
+        String normalized = value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        if (normalized.isEmpty() || normalized.equals("other")) return;
+        features.put(prefix + normalized, weight);
+    }
+}
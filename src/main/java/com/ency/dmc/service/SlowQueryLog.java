@@ -0,0 +1,281 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.SlowQueryDto;
+import com.ency.dmc.dto.SlowQueryReportDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Receives the timing of every JDBC statement from the instrumented DataSource. Statements
+ * over {@code app.slow-queries.threshold} are logged with their bound parameters and the
+ * repository method that issued them, and aggregated per normalized statement (literals
+ * and IN-list lengths folded). Parameters can hold license keys, password hashes and
+ * emails, so only their type and length are kept unless
+ * {@code app.slow-queries.capture-raw-parameters} is set (development only). Only the slowest distinct statements are kept. A sample of
+ * slow SELECTs is re-run as EXPLAIN on a separate, uninstrumented connection off the
+ * request thread, at most once per statement per {@code explain-interval}.
+ */
+@Service
+@Slf4j
+public class SlowQueryLog {
+
+    private static final ThreadLocal<String> ORIGIN = new ThreadLocal<>();
+    private static final int MAX_PARAM_LENGTH = 200;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long thresholdNanos;
+    private final int maxStatements;
+    private final double explainSampleRate;
+    private final long explainIntervalNanos;
+    private final boolean captureRawParameters;
+    private final LongAdder timed = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final Map<String, Aggregate> statements = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), r -> {
+                Thread t = new Thread(r, "slow-query-explain");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+    // Set by the DataSource post-processor: the pool underneath the instrumentation
+    private volatile DataSource explainDataSource;
+
+    private static final class Aggregate {
+        final String statement;
+        long count;
+        long totalNanos;
+        long maxNanos;
+        String sampleSql;
+        List<String> parameters;
+        String origin;
+        Instant lastSeen;
+        String plan;
+        long planAt = Long.MIN_VALUE;
+
+        Aggregate(String statement) {
+            this.statement = statement;
+        }
+    }
+
+    public SlowQueryLog(@Value("${app.slow-queries.threshold:PT0.2S}") Duration threshold,
+                        @Value("${app.slow-queries.max-statements:50}") int maxStatements,
+                        @Value("${app.slow-queries.explain-sample-rate:0.2}") double explainSampleRate,
+                        @Value("${app.slow-queries.explain-interval:PT10M}") Duration explainInterval,
+                        @Value("${app.slow-queries.capture-raw-parameters:false}") boolean captureRawParameters) {
+        this.thresholdNanos = threshold.toNanos();
+        this.maxStatements = maxStatements;
+        this.explainSampleRate = explainSampleRate;
+        this.explainIntervalNanos = explainInterval.toNanos();
+        this.captureRawParameters = captureRawParameters;
+        if (captureRawParameters) {
+            log.warn("Slow query log captures raw parameter values; do not enable this in production");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    public void setExplainDataSource(DataSource dataSource) {
+        this.explainDataSource = dataSource;
+    }
+
+    // Repository method currently executing on this thread; returns the previous value to restore
+    public static String enter(String origin) {
+        String previous = ORIGIN.get();
+        ORIGIN.set(origin);
+        return previous;
+    }
+
+    public static void exit(String previous) {
+        if (previous == null) {
+            ORIGIN.remove();
+        } else {
+            ORIGIN.set(previous);
+        }
+    }
+
+    // Hot path: one counter increment unless the statement was slow
+    public void record(String sql, Object[] parameters, int parameterCount, long nanos) {
+        timed.increment();
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        slow.increment();
+        Object[] bound = Arrays.copyOf(parameters, parameterCount);
+        String origin = ORIGIN.get();
+        if (origin == null) {
+            origin = callerOutsideJdbc();
+        }
+        List<String> params = captureRawParameters ? format(bound) : mask(bound);
+        log.warn("Slow query {} ms from {}: {} params={}", nanos / 1_000_000, origin, sql, params);
+
+        String normalized = normalize(sql);
+        Aggregate aggregate = statements.computeIfAbsent(normalized, Aggregate::new);
+        boolean explain;
+        synchronized (aggregate) {
+            aggregate.count++;
+            aggregate.totalNanos += nanos;
+            if (nanos >= aggregate.maxNanos) {
+                aggregate.maxNanos = nanos;
+                aggregate.sampleSql = sql;
+                aggregate.parameters = params;
+                aggregate.origin = origin;
+            }
+            aggregate.lastSeen = Instant.now();
+            long now = System.nanoTime();
+            explain = isSelect(sql) && explainDataSource != null
+                    && (aggregate.planAt == Long.MIN_VALUE || now - aggregate.planAt >= explainIntervalNanos)
+                    && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+            if (explain) {
+                aggregate.planAt = now;
+            }
+        }
+        if (explain) {
+            explainer.execute(() -> explain(aggregate, sql, bound));
+        }
+        if (statements.size() > maxStatements) {
+            evictFastest();
+        }
+    }
+
+    public SlowQueryReportDto report(int limit) {
+        List<SlowQueryDto> slowest = statements.values().stream()
+                .map(this::toDto)
+                .sorted(Comparator.comparingDouble(SlowQueryDto::getMaxMillis).reversed())
+                .limit(Math.max(1, Math.min(limit, maxStatements)))
+                .toList();
+        return SlowQueryReportDto.builder()
+                .thresholdMillis(thresholdNanos / 1e6)
+                .statementsTimed(timed.sum())
+                .slowStatements(slow.sum())
+                .queries(slowest)
+                .build();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private void explain(Aggregate aggregate, String sql, Object[] parameters) {
+        try (Connection connection = explainDataSource.getConnection()) {
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        if (!plan.isEmpty()) plan.append('\n');
+                        plan.append(rs.getString(1));
+                    }
+                }
+                synchronized (aggregate) {
+                    aggregate.plan = plan.toString();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.debug("EXPLAIN failed for {}: {}", sql, e.getMessage());
+        }
+    }
+
+    private void evictFastest() {
+        statements.values().stream()
+                .min(Comparator.comparingLong(a -> a.maxNanos))
+                .ifPresent(a -> statements.remove(a.statement, a));
+    }
+
+    private SlowQueryDto toDto(Aggregate a) {
+        synchronized (a) {
+            return SlowQueryDto.builder()
+                    .statement(a.statement)
+                    .sampleSql(a.sampleSql)
+                    .parameters(a.parameters)
+                    .origin(a.origin)
+                    .count(a.count)
+                    .totalMillis(a.totalNanos / 1e6)
+                    .maxMillis(a.maxNanos / 1e6)
+                    .averageMillis(a.count > 0 ? a.totalNanos / 1e6 / a.count : 0)
+                    .lastSeen(a.lastSeen)
+                    .plan(a.plan)
+                    .build();
+        }
+    }
+
+    static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = WHITESPACE.matcher(s).replaceAll(" ").trim();
+        return IN_LIST.matcher(s).replaceAll("(?...)");
+    }
+
+    private static boolean isSelect(String sql) {
+        String s = sql.stripLeading();
+        return s.regionMatches(true, 0, "select", 0, 6) || s.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    // Type and length only, e.g. "String(24)"
+    static List<String> mask(Object[] parameters) {
+        List<String> result = new ArrayList<>(parameters.length);
+        for (Object p : parameters) {
+            if (p == null) {
+                result.add("NULL");
+            } else if (p instanceof byte[] bytes) {
+                result.add("byte[" + bytes.length + "]");
+            } else {
+                result.add(p.getClass().getSimpleName() + "(" + String.valueOf(p).length() + ")");
+            }
+        }
+        return result;
+    }
+
+    private static List<String> format(Object[] parameters) {
+        List<String> result = new ArrayList<>(parameters.length);
+        for (Object p : parameters) {
+            String value;
+            if (p == null) {
+                value = "NULL";
+            } else if (p instanceof byte[] bytes) {
+                value = "<" + bytes.length + " bytes>";
+            } else {
+                value = String.valueOf(p);
+            }
+            result.add(value.length() > MAX_PARAM_LENGTH ? value.substring(0, MAX_PARAM_LENGTH) + "..." : value);
+        }
+        return result;
+    }
+
+    // Statements issued outside a repository call (lazy loads, flushes): name the application frame
+    private static String callerOutsideJdbc() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.ency.dmc.")
+                        && !f.getClassName().startsWith("com.ency.dmc.config.")
+                        && !f.getClassName().equals(SlowQueryLog.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("unknown"));
+    }
+}
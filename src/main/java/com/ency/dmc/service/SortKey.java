@@ -0,0 +1,49 @@
+package com.ency.dmc.service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Sort keys accepted by product search; anything else is rejected before querying
+public enum SortKey {
+    CREATED_AT("createdAt"),
+    PUBLISHED_AT("publishedAt"),
+    NAME("name"),
+    PRICE_EUR("priceEur"),
+    DOWNLOAD_COUNT("downloadCount", "stats.downloadCount"),
+    // Time-decayed download ranking held by TrendingService
+    TRENDING("trending");
+
+    private final String field;
+    private final String property;
+
+    SortKey(String field) {
+        this(field, field);
+    }
+
+    SortKey(String field, String property) {
+        this.field = field;
+        this.property = property;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    // Entity path to sort on in queries
+    public String property() {
+        return property;
+    }
+
+    public static SortKey parse(String value) {
+        if (value == null || value.isBlank()) {
+            return CREATED_AT;
+        }
+        for (SortKey key : values()) {
+            if (key.field.equals(value)) {
+                return key;
+            }
+        }
+        throw new RuntimeException("Unsupported sort key: " + value + " (allowed: "
+                + Arrays.stream(values()).map(SortKey::field).collect(Collectors.joining(", ")) + ")");
+    }
+}
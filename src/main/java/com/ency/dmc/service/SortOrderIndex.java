@@ -0,0 +1,307 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductSortView;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every product id in ascending order of each stored sort key (ties by id, nulls first as
+ * in the database). A search walks the permutation, forwards or backwards, against the
+ * filtered id set and stops once the page is filled, so neither the database nor the JVM
+ * sorts per request. Readers use an immutable snapshot; writers re-position only the
+ * changed ids in a copy of the affected permutations and swap the snapshot. Downloaded ids
+ * are collected after commit and moved in batches every {@value #DOWNLOAD_FLUSH_MILLIS} ms,
+ * so a busy product costs one copy per batch instead of one per download. A batch applies
+ * the committed counts rather than in-memory deltas: a row reloaded in the meantime already
+ * includes some of those downloads and must not count them twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SortOrderIndex {
+
+    private static final int CHUNK_SIZE = 500;
+    // Past this many changed rows a full re-sort is cheaper than moving ids one by one
+    private static final int RESORT_THRESHOLD = 64;
+    private static final long DOWNLOAD_FLUSH_MILLIS = 250;
+    private static final Set<String> SORTED_FIELDS = Set.of(
+            "name", "priceEur", "publishedAt", "publicationStatus", "downloadCount");
+
+    private record Row(long id, LocalDateTime createdAt, LocalDateTime publishedAt, String name,
+                       BigDecimal priceEur, int downloadCount) {
+    }
+
+    private record Snapshot(Map<SortKey, int[]> orders, BitSet indexed) {
+    }
+
+    private static final Map<SortKey, Comparator<Row>> ORDER = new EnumMap<>(Map.of(
+            SortKey.CREATED_AT, by(Row::createdAt),
+            SortKey.PUBLISHED_AT, by(Row::publishedAt),
+            SortKey.NAME, by(Row::name),
+            SortKey.PRICE_EUR, by(Row::priceEur),
+            SortKey.DOWNLOAD_COUNT, Comparator.comparingInt(Row::downloadCount).thenComparingLong(Row::id)));
+
+    private final ProductRepository productRepository;
+
+    // Guarded by this; readers only touch the snapshot
+    private final Map<Long, Row> rows = new HashMap<>();
+    private volatile Snapshot snapshot = resort();
+
+    // Guarded by itself
+    private final Set<Long> downloaded = new HashSet<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sort-index-downloads");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Ids of one page of the filtered set in key order, or empty when some filtered id is
+     * not indexed yet (created a moment ago) and the caller should sort in the database.
+     */
+    public Optional<List<Long>> page(SortKey key, boolean ascending, Collection<Long> filtered, long offset, int size) {
+        Snapshot s = snapshot;
+        int[] order = s.orders().get(key);
+        if (order == null) {
+            return Optional.empty();
+        }
+        BitSet filter = new BitSet();
+        for (Long id : filtered) {
+            filter.set(toIndex(id));
+        }
+        BitSet missing = (BitSet) filter.clone();
+        missing.andNot(s.indexed());
+        if (!missing.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Long> page = new ArrayList<>(size);
+        long skipped = 0;
+        int step = ascending ? 1 : -1;
+        for (int i = ascending ? 0 : order.length - 1; i >= 0 && i < order.length && page.size() < size; i += step) {
+            if (!filter.get(order[i])) continue;
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add((long) order[i]);
+            }
+        }
+        return Optional.of(page);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                flushDownloads();
+            } catch (RuntimeException e) {
+                log.warn("Applying downloads to the sort order index failed: {}", e.getMessage());
+            }
+        }, DOWNLOAD_FLUSH_MILLIS, DOWNLOAD_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductSortView> views = productRepository.findAllSortRows();
+        synchronized (this) {
+            rows.clear();
+            views.forEach(v -> rows.put(v.getId(), toRow(v)));
+            snapshot = resort();
+        }
+        log.info("Sort order index built for {} products", views.size());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            update(List.of(event.productId()), List.of());
+        } else {
+            update(List.of(), List.of(toRow(event.product())));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            update(event.productIds(), List.of());
+        } else if (event.type() == ProductChangeType.CREATED || event.remote()
+                || event.changes().keySet().stream().anyMatch(SORTED_FIELDS::contains)) {
+            List<Row> changed = new ArrayList<>(event.productIds().size());
+            List<Long> ids = event.productIds();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                productRepository.findSortRowsByIdIn(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))
+                        .forEach(v -> changed.add(toRow(v)));
+            }
+            update(List.of(), changed);
+        }
+    }
+
+    // Called by ProductService alongside the counter UPDATE; counted only once it commits
+    public void recordDownload(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addDownload(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addDownload(productId);
+            }
+        });
+    }
+
+    // Downloads committed on another node
+    public void recordDownloads(Collection<Long> productIds) {
+        synchronized (downloaded) {
+            downloaded.addAll(productIds);
+        }
+    }
+
+    private void addDownload(Long productId) {
+        synchronized (downloaded) {
+            downloaded.add(productId);
+        }
+    }
+
+    void flushDownloads() {
+        List<Long> ids;
+        synchronized (downloaded) {
+            if (downloaded.isEmpty()) return;
+            ids = new ArrayList<>(downloaded);
+            downloaded.clear();
+        }
+        List<Row> committed = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            productRepository.findSortRowsByIdIn(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))
+                    .forEach(v -> committed.add(toRow(v)));
+        }
+        synchronized (this) {
+            // A product deleted while the counts were read stays out of the index
+            committed.removeIf(r -> !rows.containsKey(r.id()));
+            update(List.of(), committed);
+        }
+    }
+
+    private synchronized void update(Collection<Long> removed, Collection<Row> changed) {
+        if (removed.size() + changed.size() > RESORT_THRESHOLD) {
+            removed.forEach(rows::remove);
+            changed.forEach(r -> rows.put(r.id(), r));
+            snapshot = resort();
+            return;
+        }
+
+        Snapshot s = snapshot;
+        Map<SortKey, int[]> orders = new EnumMap<>(s.orders());
+        BitSet indexed = (BitSet) s.indexed().clone();
+        for (Long id : removed) {
+            Row old = rows.remove(id);
+            if (old == null) continue;
+            ORDER.forEach((key, cmp) -> orders.put(key, without(orders.get(key), old, cmp)));
+            indexed.clear(toIndex(id));
+        }
+        for (Row row : changed) {
+            Row old = rows.put(row.id(), row);
+            ORDER.forEach((key, cmp) -> {
+                if (old != null && cmp.compare(old, row) == 0) return;
+                int[] order = old != null ? without(orders.get(key), old, cmp) : orders.get(key);
+                orders.put(key, with(order, row, cmp));
+            });
+            indexed.set(toIndex(row.id()));
+        }
+        snapshot = new Snapshot(orders, indexed);
+    }
+
+    private Snapshot resort() {
+        Map<SortKey, int[]> orders = new EnumMap<>(SortKey.class);
+        BitSet indexed = new BitSet();
+        List<Row> all = new ArrayList<>(rows.values());
+        all.forEach(r -> indexed.set(toIndex(r.id())));
+        ORDER.forEach((key, cmp) -> {
+            all.sort(cmp);
+            orders.put(key, all.stream().mapToInt(r -> toIndex(r.id())).toArray());
+        });
+        return new Snapshot(orders, indexed);
+    }
+
+    private int[] without(int[] order, Row row, Comparator<Row> cmp) {
+        int at = search(order, row, cmp);
+        if (at < 0) {
+            return order;
+        }
+        int[] result = new int[order.length - 1];
+        System.arraycopy(order, 0, result, 0, at);
+        System.arraycopy(order, at + 1, result, at, order.length - at - 1);
+        return result;
+    }
+
+    private int[] with(int[] order, Row row, Comparator<Row> cmp) {
+        int at = -search(order, row, cmp) - 1;
+        int[] result = new int[order.length + 1];
+        System.arraycopy(order, 0, result, 0, at);
+        result[at] = toIndex(row.id());
+        System.arraycopy(order, at, result, at + 1, order.length - at);
+        return result;
+    }
+
+    // Arrays.binarySearch contract; the searched id is matched by identity, since its row may
+    // already hold the new values while its position still reflects the old ones
+    private int search(int[] order, Row row, Comparator<Row> cmp) {
+        int low = 0;
+        int high = order.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (order[mid] == row.id()) {
+                return mid;
+            }
+            if (cmp.compare(rows.get((long) order[mid]), row) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<Row> by(java.util.function.Function<Row, T> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(Comparator.<T>naturalOrder()))
+                .thenComparingLong(Row::id);
+    }
+
+    private static Row toRow(ProductSortView v) {
+        return new Row(v.getId(), v.getCreatedAt(), v.getPublishedAt(), v.getName(), v.getPriceEur(),
+                v.getDownloadCount() != null ? v.getDownloadCount() : 0);
+    }
+
+    private static Row toRow(ProductDto p) {
+        return new Row(p.getId(), p.getCreatedAt(), p.getPublishedAt(), p.getName(), p.getPriceEur(),
+                p.getDownloadCount() != null ? p.getDownloadCount() : 0);
+    }
+
+    private static int toIndex(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,4 @@
+package com.ency.dmc.service;
+
+public record StoredArtifact(String key, long size, String sha256) {
+}
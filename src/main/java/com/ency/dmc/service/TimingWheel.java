@@ -0,0 +1,72 @@
+package com.ency.dmc.service;
+
+import java.util.*;
+
+/**
+ * Hashed timing wheel: one slot per tick covering a fixed horizon. Scheduling and
+ * expiring are O(1) per entry; deadlines beyond the horizon are rejected so the caller
+ * can keep them elsewhere. Each id is scheduled at most once: scheduling it again
+ * replaces the earlier deadline.
+ */
+final class TimingWheel {
+
+    private record Entry(long id, long deadlineMillis, long tick) {
+    }
+
+    private final long tickMillis;
+    private final List<Entry>[] slots;
+    private final Map<Long, Entry> scheduled = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long horizonMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new List[(int) (horizonMillis / tickMillis) + 1];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    // Returns false when the deadline is beyond the horizon; any earlier entry is dropped either way
+    synchronized boolean schedule(long id, long deadlineMillis) {
+        Entry previous = scheduled.remove(id);
+        if (previous != null) {
+            slots[(int) (previous.tick() % slots.length)].remove(previous);
+        }
+        long tick = Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        if (tick - currentTick >= slots.length) {
+            return false;
+        }
+        Entry entry = new Entry(id, deadlineMillis, tick);
+        scheduled.put(id, entry);
+        slots[(int) (tick % slots.length)].add(entry);
+        return true;
+    }
+
+    // Advances to nowMillis and returns the ids whose deadline has passed
+    synchronized List<Long> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        long from = Math.max(currentTick + 1, target - slots.length + 1);
+        for (long tick = from; tick <= target; tick++) {
+            List<Entry> slot = slots[(int) (tick % slots.length)];
+            if (slot.isEmpty()) continue;
+            Iterator<Entry> it = slot.iterator();
+            while (it.hasNext()) {
+                Entry e = it.next();
+                if (e.deadlineMillis() <= nowMillis) {
+                    due.add(e.id());
+                    scheduled.remove(e.id());
+                    it.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+        return due;
+    }
+
+    synchronized int size() {
+        return scheduled.size();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.ChangeCounter;
+import com.ency.dmc.repository.ChangeCounterRepository;
+import com.ency.dmc.repository.ProductTombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Prunes delete tombstones once they are older than {@code app.sync.tombstone-retention}.
+ * The highest pruned change sequence is kept in a counter row, so delta sync can tell a
+ * mirror whose token predates it that deletions were lost and it must resynchronize.
+ */
+@Service
+@Slf4j
+public class TombstoneRetention {
+
+    static final String PRUNED = "product_tombstones_pruned";
+
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ChangeCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    public TombstoneRetention(ProductTombstoneRepository tombstoneRepository,
+                              ChangeCounterRepository counterRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.sync.tombstone-retention:P30D}") Duration retention) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!counterRepository.existsById(PRUNED)) {
+                counterRepository.save(new ChangeCounter(PRUNED, 0L));
+            }
+        });
+    }
+
+    // Sync tokens below this may have missed deletions
+    public long prunedSeq() {
+        Long value = counterRepository.currentValue(PRUNED);
+        return value != null ? value : 0L;
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.tombstone-sweep-interval-ms:3600000}",
+            fixedDelayString = "${app.sync.tombstone-sweep-interval-ms:3600000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer pruned = transactionTemplate.execute(status -> {
+            Long upTo = tombstoneRepository.findMaxSeqDeletedBefore(cutoff);
+            if (upTo == null) {
+                return 0;
+            }
+            // Raised in the same transaction, so no reader sees rows gone but the mark old
+            counterRepository.raiseTo(PRUNED, upTo);
+            return tombstoneRepository.deleteUpTo(upTo);
+        });
+        if (pruned != null && pruned > 0) {
+            log.info("Pruned {} product tombstones older than {}", pruned, retention);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.TrendingSnapshot;
+import com.ency.dmc.repository.TrendingSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time-decayed download popularity. Each product has a ring buffer of hourly download
+ * counters updated with CAS only, so recording a download never blocks. The trending
+ * score sums the buckets with exponential decay by age, plus a decayed base score
+ * restored from the last DB snapshot, which keeps rankings across restarts.
+ * <p>
+ * The windows are node-local: each node counts only the downloads it served, and the
+ * snapshot rows are written by whichever node snapshots last. With several nodes behind a
+ * load balancer the rankings agree only as far as traffic is spread evenly.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    // Slot layout: hour since epoch in the high 24 bits, count in the low 40 bits
+    private static final int COUNT_BITS = 40;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final TrendingSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.trending.window-hours:168}")
+    private int windowHours;
+
+    @Value("${app.trending.half-life:PT24H}")
+    private Duration halfLife;
+
+    private final Map<Long, DownloadWindow> windows = new ConcurrentHashMap<>();
+
+    private final class DownloadWindow {
+        final AtomicLongArray slots = new AtomicLongArray(windowHours);
+        volatile double baseScore;
+        volatile long baseAtMillis;
+
+        void record(long nowMillis) {
+            long hour = nowMillis / HOUR_MILLIS;
+            int idx = (int) (hour % windowHours);
+            while (true) {
+                long cur = slots.get(idx);
+                long next = (cur >>> COUNT_BITS) == hour ? cur + 1 : (hour << COUNT_BITS) | 1;
+                if (slots.compareAndSet(idx, cur, next)) {
+                    return;
+                }
+            }
+        }
+
+        double score(long nowMillis, double lambdaPerHour) {
+            double nowHours = (double) nowMillis / HOUR_MILLIS;
+            double score = baseScore * Math.exp(-lambdaPerHour * (nowMillis - baseAtMillis) / HOUR_MILLIS);
+            long oldest = nowMillis / HOUR_MILLIS - windowHours;
+            for (int i = 0; i < windowHours; i++) {
+                long slot = slots.get(i);
+                long hour = slot >>> COUNT_BITS;
+                long count = slot & COUNT_MASK;
+                if (count > 0 && hour > oldest) {
+                    score += count * Math.exp(-lambdaPerHour * (nowHours - (hour + 0.5)));
+                }
+            }
+            return score;
+        }
+
+        long countSince(long nowMillis, int hours) {
+            long from = nowMillis / HOUR_MILLIS - Math.min(hours, windowHours);
+            long total = 0;
+            for (int i = 0; i < windowHours; i++) {
+                long slot = slots.get(i);
+                if ((slot >>> COUNT_BITS) > from) {
+                    total += slot & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+
+    // Called by ProductService alongside the counter UPDATE; counted only once it commits
+    public void recordDownload(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordDownload(productId, System.currentTimeMillis());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordDownload(productId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    void recordDownload(Long productId, long nowMillis) {
+        windows.computeIfAbsent(productId, id -> new DownloadWindow()).record(nowMillis);
+    }
+
+    public double score(Long productId) {
+        return score(productId, System.currentTimeMillis());
+    }
+
+    double score(Long productId, long nowMillis) {
+        DownloadWindow window = windows.get(productId);
+        return window == null ? 0 : window.score(nowMillis, lambda());
+    }
+
+    public long downloadsSince(Long productId, int hours) {
+        return downloadsSince(productId, hours, System.currentTimeMillis());
+    }
+
+    long downloadsSince(Long productId, int hours, long nowMillis) {
+        DownloadWindow window = windows.get(productId);
+        return window == null ? 0 : window.countSince(nowMillis, hours);
+    }
+
+    public void remove(Long productId) {
+        windows.remove(productId);
+    }
+
+    /**
+     * Orders candidates by trending score using a bounded heap, returning at most
+     * {@code limit} ids. Ties go to the newer (higher) id.
+     */
+    public List<Long> top(Collection<Long> candidates, int limit, boolean ascending) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        double lambda = lambda();
+        Comparator<Map.Entry<Long, Double>> order = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        if (ascending) {
+            order = order.reversed();
+        }
+        // Min-heap of the best `limit` entries seen so far
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(limit + 1, order);
+        for (Long id : candidates) {
+            DownloadWindow window = windows.get(id);
+            double score = window == null ? 0 : window.score(now, lambda);
+            heap.offer(Map.entry(id, score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        Long[] result = new Long[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll().getKey();
+        }
+        return Arrays.asList(result);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        List<TrendingSnapshot> snapshots = snapshotRepository.findAll();
+        ZoneId zone = ZoneId.systemDefault();
+        for (TrendingSnapshot s : snapshots) {
+            DownloadWindow window = windows.computeIfAbsent(s.getProductId(), id -> new DownloadWindow());
+            window.baseScore = s.getScore();
+            window.baseAtMillis = s.getSnapshotAt().atZone(zone).toInstant().toEpochMilli();
+        }
+        log.info("Restored trending scores for {} products", snapshots.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.trending.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        transactionTemplate.executeWithoutResult(status -> writeSnapshot());
+    }
+
+    private void writeSnapshot() {
+        long now = System.currentTimeMillis();
+        double lambda = lambda();
+        LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+
+        Map<Long, TrendingSnapshot> existing = new HashMap<>();
+        snapshotRepository.findAll().forEach(s -> existing.put(s.getProductId(), s));
+        List<TrendingSnapshot> created = new ArrayList<>();
+        windows.forEach((productId, window) -> {
+            double score = window.score(now, lambda);
+            TrendingSnapshot s = existing.get(productId);
+            if (s == null) {
+                created.add(TrendingSnapshot.builder().productId(productId).score(score).snapshotAt(at).build());
+            } else {
+                s.setScore(score);
+                s.setSnapshotAt(at);
+            }
+        });
+        existing.keySet().removeAll(windows.keySet());
+        snapshotRepository.deleteAllInBatch(existing.values());
+        snapshotRepository.saveAll(created);
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.warn("Failed to snapshot trending scores on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private double lambda() {
+        return Math.log(2) / (halfLife.toMillis() / (double) HOUR_MILLIS);
+    }
+}
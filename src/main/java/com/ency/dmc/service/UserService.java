@@ -5,6 +5,9 @@ import com.ency.dmc.model.User;
 import com.ency.dmc.model.UserRole;
 import com.ency.dmc.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,10 +16,12 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-public class UserService {
+@Transactional(readOnly = true)
+public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationBus invalidationBus;
 
     public List<UserDto> findAll() {
         return userRepository.findAll().stream().map(this::toDto).toList();
@@ -34,6 +39,17 @@ public class UserService {
         return toDto(user);
     }
 
+    // Credentials for Spring Security; the role becomes ROLE_<name>
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+                .password(user.getPassword())
+                .roles(user.getRole().name())
+                .build();
+    }
+
     @Transactional
     public UserDto create(String username, String password, String email, String fullName,
                           String company, UserRole role) {
@@ -51,6 +67,8 @@ public class UserService {
                 .build();
 
         user = userRepository.save(user);
+        // Other nodes may hold a cached empty lookup for this username
+        invalidationBus.publish(CacheTopic.USERS, List.of(user.getId()));
         return toDto(user);
     }
 
@@ -0,0 +1,70 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.VendorDashboardDto;
+import com.ency.dmc.model.PublicationStatus;
+import com.ency.dmc.model.User;
+import com.ency.dmc.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Totals come from two grouped queries; recent downloads from the in-memory trending windows
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class VendorDashboardService {
+
+    private final ProductRepository productRepository;
+    private final LicenseRepository licenseRepository;
+    private final UserRepository userRepository;
+    private final TrendingService trendingService;
+
+    public VendorDashboardDto getDashboard(String username) {
+        User owner = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+
+        Map<PublicationStatus, Long> byStatus = new EnumMap<>(PublicationStatus.class);
+        for (PublicationStatus status : PublicationStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        long products = 0, downloads = 0, comments = 0;
+        for (OwnerStatusAggregate row : productRepository.aggregateByOwner(owner.getId())) {
+            byStatus.put(row.getStatus(), row.getProducts());
+            products += row.getProducts();
+            downloads += row.getDownloads();
+            comments += row.getComments();
+        }
+
+        long trial = 0, permanent = 0, active = 0;
+        for (OwnerLicenseAggregate row : licenseRepository.aggregateByProductOwner(owner.getId())) {
+            if (row.isTrial()) {
+                trial = row.getIssued();
+            } else {
+                permanent = row.getIssued();
+            }
+            active += row.getActive();
+        }
+
+        long last24h = 0, last7d = 0;
+        for (Long id : productRepository.findIdsByOwnerId(owner.getId())) {
+            last24h += trendingService.downloadsSince(id, 24);
+            last7d += trendingService.downloadsSince(id, 24 * 7);
+        }
+
+        return VendorDashboardDto.builder()
+                .ownerId(owner.getId())
+                .totalProducts(products)
+                .productsByStatus(byStatus)
+                .totalDownloads(downloads)
+                .downloadsLast24h(last24h)
+                .downloadsLast7d(last7d)
+                .totalComments(comments)
+                .trialLicenses(trial)
+                .permanentLicenses(permanent)
+                .activeLicenses(active)
+                .build();
+    }
+}
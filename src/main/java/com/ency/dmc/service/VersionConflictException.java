@@ -0,0 +1,12 @@
+package com.ency.dmc.service;
+
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+
+    public VersionConflictException(Long productId, Long expected, Long actual) {
+        super("Product " + productId + " was modified: expected version " + expected + ", current " + actual);
+    }
+}
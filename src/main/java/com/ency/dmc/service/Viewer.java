@@ -0,0 +1,9 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.UserRole;
+
+// The caller a read is performed for; role is null for anonymous requests
+public record Viewer(Long userId, UserRole role) {
+
+    public static final Viewer ANONYMOUS = new Viewer(null, null);
+}
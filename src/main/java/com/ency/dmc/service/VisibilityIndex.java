@@ -0,0 +1,167 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductChangedEvent;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.model.UserRole;
+import com.ency.dmc.model.Visibility;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductVisibilityView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Which products each role may see, as one bitset per role indexed by product id.
+ * Readers use an immutable snapshot without locking; writers copy the affected bitsets
+ * and swap the snapshot, once per change event or bulk batch. Owners always see their
+ * own products regardless of visibility; a vendor sees other vendors' products only when
+ * they are public. Admins see everything.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VisibilityIndex {
+
+    private static final Map<UserRole, Set<Visibility>> VISIBLE_TO = Map.of(
+            UserRole.USER, EnumSet.of(Visibility.PUBLIC),
+            UserRole.DEALER, EnumSet.of(Visibility.PUBLIC, Visibility.DEALER, Visibility.DEALERS),
+            UserRole.VENDOR, EnumSet.of(Visibility.PUBLIC),
+            UserRole.ADMIN, EnumSet.allOf(Visibility.class));
+
+    private final ProductRepository productRepository;
+
+    private record Snapshot(Map<UserRole, BitSet> allowed, Map<Long, Long> ownerOf) {
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(emptySets(), Map.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductVisibilityView> rows = productRepository.findAllVisibility();
+        synchronized (this) {
+            Map<UserRole, BitSet> allowed = emptySets();
+            Map<Long, Long> ownerOf = new HashMap<>();
+            rows.forEach(r -> apply(allowed, ownerOf, r.getId(), r.getVisibility(), r.getOwnerId()));
+            snapshot = new Snapshot(allowed, ownerOf);
+        }
+        log.info("Visibility index built for {} products", rows.size());
+    }
+
+    // Runs before other after-commit listeners so views built on it see the new state
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            update(List.of(event.productId()), List.of());
+        } else {
+            ProductDto p = event.product();
+            update(List.of(), List.of(new Row(p.getId(), p.getVisibility(), p.getOwnerId())));
+        }
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductsChanged(ProductsBulkChangedEvent event) {
+        if (event.type() == ProductChangeType.DELETED) {
+            update(event.productIds(), List.of());
+        } else if (event.type() == ProductChangeType.CREATED || event.remote()
+                || event.changes().containsKey("visibility")) {
+            update(List.of(), productRepository.findVisibilityByIdIn(event.productIds()).stream()
+                    .map(r -> new Row(r.getId(), r.getVisibility(), r.getOwnerId()))
+                    .toList());
+        }
+    }
+
+    // True when the viewer sees every product, so no filtering is needed
+    public boolean seesAll(Viewer viewer) {
+        return roleOf(viewer) == UserRole.ADMIN;
+    }
+
+    public boolean canSee(Viewer viewer, Long productId) {
+        if (seesAll(viewer)) {
+            return true;
+        }
+        Snapshot s = snapshot;
+        return isVisible(s, s.allowed().get(roleOf(viewer)), viewer.userId(), productId);
+    }
+
+    // Same rule evaluated against a loaded row, for readers that must not depend on index lag
+    public boolean canSee(Viewer viewer, Visibility visibility, Long ownerId) {
+        return VISIBLE_TO.get(roleOf(viewer)).contains(visibility)
+                || (viewer.userId() != null && viewer.userId().equals(ownerId));
+    }
+
+    // Keeps the ids the viewer may see, preserving order
+    public List<Long> retainVisible(Viewer viewer, List<Long> ids) {
+        if (seesAll(viewer)) {
+            return ids;
+        }
+        Snapshot s = snapshot;
+        BitSet allowed = s.allowed().get(roleOf(viewer));
+        List<Long> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (isVisible(s, allowed, viewer.userId(), id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private record Row(Long id, Visibility visibility, Long ownerId) {
+    }
+
+    private synchronized void update(Collection<Long> removed, Collection<Row> changed) {
+        Snapshot s = snapshot;
+        Map<UserRole, BitSet> allowed = new EnumMap<>(UserRole.class);
+        s.allowed().forEach((role, bits) -> allowed.put(role, (BitSet) bits.clone()));
+        Map<Long, Long> ownerOf = new HashMap<>(s.ownerOf());
+        for (Long id : removed) {
+            allowed.values().forEach(bits -> bits.clear(toIndex(id)));
+            ownerOf.remove(id);
+        }
+        for (Row r : changed) {
+            apply(allowed, ownerOf, r.id(), r.visibility(), r.ownerId());
+        }
+        snapshot = new Snapshot(allowed, ownerOf);
+    }
+
+    private static void apply(Map<UserRole, BitSet> allowed, Map<Long, Long> ownerOf,
+                              Long id, Visibility visibility, Long ownerId) {
+        int index = toIndex(id);
+        allowed.forEach((role, bits) -> bits.set(index, VISIBLE_TO.get(role).contains(visibility)));
+        if (ownerId != null) {
+            ownerOf.put(id, ownerId);
+        } else {
+            ownerOf.remove(id);
+        }
+    }
+
+    private static boolean isVisible(Snapshot s, BitSet allowed, Long userId, Long productId) {
+        return allowed.get(toIndex(productId)) || (userId != null && userId.equals(s.ownerOf().get(productId)));
+    }
+
+    private static UserRole roleOf(Viewer viewer) {
+        return viewer.role() != null ? viewer.role() : UserRole.USER;
+    }
+
+    private static int toIndex(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static Map<UserRole, BitSet> emptySets() {
+        Map<UserRole, BitSet> sets = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            sets.put(role, new BitSet());
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ency.dmc.config;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.dto.ProductSearchRequest;
+import com.ency.dmc.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application on two separate H2 databases and checks where real service calls
+ * land. The replica starts as an empty copy of the primary's schema, since Hibernate only
+ * creates tables on the primary, and is filled with a copy of the seeded data before the
+ * test diverges the two.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + DataSourceRoutingConfigTest.PRIMARY_URL,
+        "app.datasource.replica.url=" + DataSourceRoutingConfigTest.REPLICA_URL})
+class DataSourceRoutingConfigTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        // The schema exists on the primary once the entity manager factory is built, before
+        // any read-only transaction can reach the replica
+        @Bean
+        static BeanPostProcessor copySchemaToReplica() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("entityManagerFactory".equals(beanName)) {
+                        copyPrimaryToReplica("NODATA");
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void readOnlyServiceCallsUseTheReplicaAndWritesThePrimary() {
+        copyPrimaryToReplica("");
+        Long id;
+        String original;
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement st = replica.createStatement()) {
+            var rs = st.executeQuery("SELECT id, name FROM products WHERE publication_status = 'PUBLISHED' "
+                    + "ORDER BY id FETCH FIRST 1 ROW ONLY");
+            rs.next();
+            id = rs.getLong(1);
+            original = rs.getString(2);
+            st.executeUpdate("UPDATE products SET name = 'Served by the replica' WHERE id = " + id);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // ProductService.search runs in a read-only JPA transaction
+        ProductSearchRequest request = new ProductSearchRequest();
+        request.setQuery("served by the replica");
+        Page<ProductDto> found = productService.search(request, "admin");
+        assertThat(found.getContent()).extracting(ProductDto::getId).containsExactly(id);
+
+        // A read-write transaction goes to the primary, which never saw the rename
+        String onPrimary = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM products WHERE id = ?", String.class, id));
+        assertThat(onPrimary).isEqualTo(original);
+    }
+
+    @Test
+    void keepsBootsSinglePoolWithoutReplicaUrl() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+                .withUserConfiguration(DataSourceRoutingConfig.class)
+                .withPropertyValues("spring.datasource.url=jdbc:h2:mem:routing_single")
+                .run(context -> assertThat(context).doesNotHaveBean("replicaDataSource"));
+    }
+
+    // Stands in for replication: replaces the replica's contents with a script of the primary
+    private static void copyPrimaryToReplica(String scriptOptions) {
+        try {
+            Path script = Files.createTempFile("routing-", ".sql");
+            try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                 Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement from = primary.createStatement();
+                 Statement to = replica.createStatement()) {
+                from.execute("SCRIPT " + scriptOptions + " TO '" + script + "'");
+                to.execute("DROP ALL OBJECTS");
+                to.execute("RUNSCRIPT FROM '" + script + "'");
+            } finally {
+                Files.deleteIfExists(script);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
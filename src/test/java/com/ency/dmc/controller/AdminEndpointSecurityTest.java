@@ -0,0 +1,65 @@
+package com.ency.dmc.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Base64;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class AdminEndpointSecurityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void slowQueriesRequireAnAdmin() throws Exception {
+        mvc.perform(get("/api/admin/slow-queries")).andExpect(status().isUnauthorized());
+        mvc.perform(delete("/api/admin/slow-queries")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/admin/slow-queries").header(HttpHeaders.AUTHORIZATION, basic("vendor", "vendor")))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/admin/slow-queries").header(HttpHeaders.AUTHORIZATION, basic("admin", "admin")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void auditTrailRequiresAnAdmin() throws Exception {
+        for (String path : new String[]{"/api/admin/audit", "/api/admin/audit/stats"}) {
+            mvc.perform(get(path)).andExpect(status().isUnauthorized());
+            mvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, basic("dealer", "dealer")))
+                    .andExpect(status().isForbidden());
+            mvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, basic("admin", "admin")))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void duplicateClustersRequireAnAdmin() throws Exception {
+        mvc.perform(get("/api/admin/duplicates")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/admin/duplicates").header(HttpHeaders.AUTHORIZATION, basic("vendor", "vendor")))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/admin/duplicates").header(HttpHeaders.AUTHORIZATION, basic("admin", "admin")))
+                .andExpect(status().isOk());
+    }
+
+    static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.model.Product;
+import com.ency.dmc.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@SpringBootTest
+class ProductConcurrentUpdateTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentUpdatesWithTheSameIfMatchHaveOneWinner() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        Product product = productRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        String etag = mvc.perform(get("/api/products/{id}", product.getId())
+                        .header(HttpHeaders.AUTHORIZATION, basic("admin", "admin")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                String body = """
+                        {"name": "Concurrent edit %d", "contentType": "%s", "category": "%s"}
+                        """.formatted(i, product.getContentType(), product.getCategory());
+                results.add(pool.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    return mvc.perform(put("/api/products/{id}", product.getId())
+                                    .header(HttpHeaders.IF_MATCH, etag)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> result : results) {
+                statuses.add(result.get(60, TimeUnit.SECONDS));
+            }
+
+            assertThat(statuses).filteredOn(s -> s == 200).hasSize(1);
+            assertThat(statuses).filteredOn(s -> s == 412).hasSize(WRITERS - 1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes());
+    }
+}
@@ -0,0 +1,111 @@
+package com.ency.dmc.controller;
+
+import com.ency.dmc.model.User;
+import com.ency.dmc.model.Visibility;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductVisibilityView;
+import com.ency.dmc.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ency.dmc.controller.AdminEndpointSecurityTest.basic;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class ProductVisibilityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void listingReturnsOnlyPublishedProductsTheViewerMaySee() throws Exception {
+        mvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].visibility", everyItem(is("PUBLIC"))))
+                .andExpect(jsonPath("$[*].publicationStatus", everyItem(is("PUBLISHED"))));
+        mvc.perform(get("/api/products").header(HttpHeaders.AUTHORIZATION, basic("user", "user")))
+                .andExpect(jsonPath("$[*].visibility", everyItem(is("PUBLIC"))));
+    }
+
+    @Test
+    void vendorsSeeOtherVendorsHiddenProductsAsMissing() throws Exception {
+        Map<Long, User> users = userRepository.findAll().stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        ProductVisibilityView hidden = productRepository.findAllVisibility().stream()
+                .filter(p -> p.getVisibility() == Visibility.VENDOR && p.getOwnerId() != null
+                        && users.get(p.getOwnerId()).getUsername().startsWith("vendor_"))
+                .findFirst()
+                .orElseThrow();
+        String owner = users.get(hidden.getOwnerId()).getUsername();
+
+        mvc.perform(get("/api/products/" + hidden.getId()).header(HttpHeaders.AUTHORIZATION, basic("vendor", "vendor")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("Product not found")));
+        mvc.perform(get("/api/products/" + hidden.getId()).header(HttpHeaders.AUTHORIZATION, basic(owner, "vendor")))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/products/" + hidden.getId()).header(HttpHeaders.AUTHORIZATION, basic("admin", "admin")))
+                .andExpect(status().isOk());
+
+        // Neither its artifact nor its comments are acknowledged to exist
+        mvc.perform(get("/api/products/" + hidden.getId() + "/artifact"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("Product not found")));
+        mvc.perform(get("/api/products/" + hidden.getId() + "/comments"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("Product not found")));
+        mvc.perform(get("/api/products/" + hidden.getId() + "/comments")
+                        .header(HttpHeaders.AUTHORIZATION, basic(owner, "vendor")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyTheOwnerOrAnAdminMayUploadArtifactsAndImages() throws Exception {
+        Long dealerId = userRepository.findByUsername("dealer").orElseThrow().getId();
+        Long id = productRepository.findAllVisibility().stream()
+                .filter(p -> !dealerId.equals(p.getOwnerId()))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        MockMultipartFile file = new MockMultipartFile("file", "post.zip", "application/zip", new byte[]{1, 2, 3});
+
+        for (String upload : new String[]{"/artifact", "/image"}) {
+            mvc.perform(multipart("/api/products/" + id + upload).file(file))
+                    .andExpect(status().isUnauthorized());
+            mvc.perform(multipart("/api/products/" + id + upload).file(file)
+                            .header(HttpHeaders.AUTHORIZATION, basic("dealer", "dealer")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error", containsString("owner")));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ency.dmc.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SoftwareVersionTest {
+
+    @Test
+    void takesTheVersionAfterTheProductPrefix() {
+        assertThat(SoftwareVersion.encode("SprutCAM X 17")).isEqualTo(code(17, 0, 0));
+        assertThat(SoftwareVersion.encode("SprutCAM X 17 (64-bit)")).isEqualTo(code(17, 0, 0));
+        assertThat(SoftwareVersion.encode("SprutCAM X 16 SP2")).isEqualTo(code(16, 0, 0));
+        assertThat(SoftwareVersion.encode("SprutCAM X 17.2 x64")).isEqualTo(code(17, 2, 0));
+        assertThat(SoftwareVersion.encode("X16.1.3")).isEqualTo(code(16, 1, 3));
+        assertThat(SoftwareVersion.encode("v17.2")).isEqualTo(code(17, 2, 0));
+    }
+
+    @Test
+    void returnsNullWithoutExactlyOneVersion() {
+        assertThat(SoftwareVersion.encode("SprutCAM X")).isNull();
+        assertThat(SoftwareVersion.encode("SprutCAM X 16 or 17")).isNull();
+        assertThat(SoftwareVersion.encode("16 / 17.1")).isNull();
+        assertThat(SoftwareVersion.encode(" ")).isNull();
+    }
+
+    private static long code(long major, long minor, long patch) {
+        return (major << 32) | (minor << 16) | patch;
+    }
+}
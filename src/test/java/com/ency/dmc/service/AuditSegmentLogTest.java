@@ -0,0 +1,48 @@
+package com.ency.dmc.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSegmentLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rollbackDiscardsUnsyncedFramesSoTheyCanBeAppendedAgain() throws Exception {
+        try (AuditSegmentLog log = new AuditSegmentLog(dir, 1 << 20)) {
+            log.append(1, bytes("one"));
+            log.sync();
+            log.append(2, bytes("two"));
+            log.append(3, bytes("three"));
+
+            log.rollback();
+            assertThat(log.nextSequence()).isEqualTo(2);
+
+            log.append(2, bytes("two again"));
+            log.sync();
+        }
+
+        List<String> frames = new ArrayList<>();
+        try (AuditSegmentLog log = new AuditSegmentLog(dir, 1 << 20)) {
+            assertThat(log.nextSequence()).isEqualTo(3);
+            log.readSegmentsNewestFirst(segment -> {
+                AuditSegmentLog.readFrames(segment, (sequence, payload) ->
+                        frames.add(sequence + ":" + new String(payload, StandardCharsets.UTF_8)));
+                return true;
+            });
+        }
+        assertThat(frames).containsExactly("1:one", "2:two again");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.AuditEntryDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditServiceTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int ENTRIES_PER_PRODUCER = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentProducersLoseNoEntriesAndSequencesAreContiguous() throws Exception {
+        // Small buffer and segments, so producers hit back-pressure and the log rotates
+        AuditService audit = newAuditService(64, 32, DataSize.ofKilobytes(64));
+        audit.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(PRODUCERS);
+        CyclicBarrier start = new CyclicBarrier(PRODUCERS);
+        List<Future<?>> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            String action = "PRODUCER_" + p;
+            producers.add(pool.submit(() -> {
+                start.await(10, TimeUnit.SECONDS);
+                for (long i = 0; i < ENTRIES_PER_PRODUCER; i++) {
+                    audit.record(action, "test", i, Map.of());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> producer : producers) {
+            producer.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        audit.stop();
+
+        List<AuditEntryDto> entries = readAll();
+        int total = PRODUCERS * ENTRIES_PER_PRODUCER;
+        assertThat(entries).hasSize(total);
+        for (int i = 0; i < total; i++) {
+            assertThat(entries.get(i).getSequence()).isEqualTo(i + 1);
+        }
+        // Each producer's entries appear once each, in the order it recorded them
+        Map<String, Long> nextExpected = new HashMap<>();
+        for (AuditEntryDto entry : entries) {
+            long expected = nextExpected.getOrDefault(entry.getAction(), 0L);
+            assertThat(entry.getEntityId()).isEqualTo(expected);
+            nextExpected.put(entry.getAction(), expected + 1);
+        }
+        assertThat(nextExpected).hasSize(PRODUCERS).allSatisfy((action, next) ->
+                assertThat(next).isEqualTo(ENTRIES_PER_PRODUCER));
+        assertThat(audit.stats().getBackPressureWaits()).isPositive();
+        assertThat(audit.stats().getSegments()).isGreaterThan(1);
+    }
+
+    private AuditService newAuditService(int bufferCapacity, int batchSize, DataSize segmentSize) {
+        AuditService audit = new AuditService(objectMapper);
+        ReflectionTestUtils.setField(audit, "dir", dir);
+        ReflectionTestUtils.setField(audit, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(audit, "bufferCapacity", bufferCapacity);
+        ReflectionTestUtils.setField(audit, "batchSize", batchSize);
+        return audit;
+    }
+
+    private List<AuditEntryDto> readAll() throws Exception {
+        List<List<AuditEntryDto>> newestFirst = new ArrayList<>();
+        try (AuditSegmentLog log = new AuditSegmentLog(dir, Long.MAX_VALUE)) {
+            log.readSegmentsNewestFirst(segment -> {
+                List<AuditEntryDto> frames = new ArrayList<>();
+                AuditSegmentLog.readFrames(segment, (sequence, payload) -> {
+                    try {
+                        AuditEntryDto entry = objectMapper.readValue(payload, AuditEntryDto.class);
+                        entry.setSequence(sequence);
+                        frames.add(entry);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                newestFirst.add(frames);
+                return true;
+            });
+        }
+        Collections.reverse(newestFirst);
+        return newestFirst.stream().flatMap(List::stream).toList();
+    }
+}
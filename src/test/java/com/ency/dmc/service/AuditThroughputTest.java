@@ -0,0 +1,127 @@
+package com.ency.dmc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the audit pipeline against the alternative it replaces: one INSERT
+ * committed per audited write. Both sides serialize the same details map. Producer time
+ * is what a request thread pays; durable time includes the writer's last fsync.
+ */
+@Slf4j
+class AuditThroughputTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int ENTRIES_PER_PRODUCER = 10_000;
+    private static final int TOTAL = PRODUCERS * ENTRIES_PER_PRODUCER;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pipelineAgainstSynchronousInsert() throws Exception {
+        long syncNanos = synchronousInserts();
+        long[] pipeline = pipeline();
+
+        log.info("Audit throughput, {} producers x {} entries:", PRODUCERS, ENTRIES_PER_PRODUCER);
+        log.info("  synchronous INSERT per entry: {} ms, {} entries/s", syncNanos / 1_000_000, rate(syncNanos));
+        log.info("  pipeline, producers done:     {} ms, {} entries/s", pipeline[0] / 1_000_000, rate(pipeline[0]));
+        log.info("  pipeline, durable on disk:    {} ms, {} entries/s", pipeline[1] / 1_000_000, rate(pipeline[1]));
+    }
+
+    private long synchronousInserts() throws Exception {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl("jdbc:h2:file:" + dir.resolve("sync-db").toAbsolutePath());
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(PRODUCERS);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE TABLE audit_entries (seq BIGINT AUTO_INCREMENT PRIMARY KEY, created_at TIMESTAMP, "
+                    + "action VARCHAR(64), entity_type VARCHAR(64), entity_id BIGINT, details VARCHAR(1000))");
+
+            // Auto-commit: each entry is its own transaction, as inside each @Transactional write
+            long nanos = runProducers(action -> entityId -> jdbc.update(
+                    "INSERT INTO audit_entries (created_at, action, entity_type, entity_id, details) VALUES (?, ?, ?, ?, ?)",
+                    Timestamp.from(Instant.now()), action, "product", entityId,
+                    objectMapper.writeValueAsString(details(entityId))));
+            assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM audit_entries", Long.class)).isEqualTo(TOTAL);
+            return nanos;
+        }
+    }
+
+    private long[] pipeline() throws Exception {
+        AuditService audit = new AuditService(objectMapper);
+        ReflectionTestUtils.setField(audit, "dir", dir.resolve("audit"));
+        ReflectionTestUtils.setField(audit, "segmentSize", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(audit, "bufferCapacity", 8192);
+        ReflectionTestUtils.setField(audit, "batchSize", 512);
+        audit.start();
+
+        long started = System.nanoTime();
+        long producersDone = runProducers(action -> entityId -> audit.record(action, "product", entityId, details(entityId)));
+        audit.stop();
+        long durable = System.nanoTime() - started;
+        assertThat(audit.stats().getWritten()).isEqualTo(TOTAL);
+        return new long[]{producersDone, durable};
+    }
+
+    private interface Write {
+        void accept(long entityId) throws Exception;
+    }
+
+    private interface Producer {
+        Write forAction(String action);
+    }
+
+    private static long runProducers(Producer producer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(PRODUCERS);
+        CyclicBarrier start = new CyclicBarrier(PRODUCERS + 1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int p = 0; p < PRODUCERS; p++) {
+                Write write = producer.forAction("PRODUCER_" + p);
+                results.add(pool.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    for (long i = 0; i < ENTRIES_PER_PRODUCER; i++) {
+                        write.accept(i);
+                    }
+                    return null;
+                }));
+            }
+            start.await(10, TimeUnit.SECONDS);
+            long started = System.nanoTime();
+            for (Future<?> result : results) {
+                result.get(120, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Map<String, Object> details(long entityId) {
+        return Map.of("name", "Product " + entityId, "publicationStatus", "PUBLISHED");
+    }
+
+    private static long rate(long nanos) {
+        return TOTAL * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.DmcApplication;
+import com.ency.dmc.dto.ProductCreateRequest;
+import com.ency.dmc.model.Product;
+import com.ency.dmc.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts on one H2 file database stand in for two nodes. Each gets its
+ * own JCache manager, so nothing but the database is shared between them.
+ */
+class ClusterCacheInvalidationTest {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+    // Flush on the writing node plus poll on the reading one, with headroom for a slow machine
+    private static final Duration MAX_LAG = POLL_INTERVAL.multipliedBy(10);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void productUpdateOnOneNodeIsAppliedOnTheOther() throws Exception {
+        try (Node a = startNode("a"); Node b = startNode("b")) {
+            Product product = b.bean(ProductRepository.class).findAll(PageRequest.of(0, 1)).getContent().get(0);
+            Long id = product.getId();
+
+            // Each node's second-level cache lives in its own manager
+            assertThat(a.cacheManager().getCache("products")).isNotNull();
+            assertThat(b.cacheManager().getCache("products")).isNotNull();
+
+            // Warm node B: serialized detail JSON and the second-level cache entry
+            assertThat(detailJson(b, id)).contains(product.getName());
+            assertThat(cachedName(b, id)).isEqualTo(product.getName());
+
+            String renamed = product.getName() + " (renamed on node a)";
+            ProductCreateRequest request = ProductCreateRequest.builder()
+                    .name(renamed)
+                    .contentType(product.getContentType())
+                    .category(product.getCategory())
+                    .build();
+            a.bean(ProductService.class).update(id, request, null);
+
+            long deadline = System.nanoTime() + MAX_LAG.toNanos();
+            while (!(detailJson(b, id).contains(renamed) && renamed.equals(cachedName(b, id)))
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(detailJson(b, id)).contains(renamed);
+            assertThat(cachedName(b, id)).isEqualTo(renamed);
+            assertThat(b.bean(CacheInvalidationBus.class).stats().getKeysReceived()).isPositive();
+        }
+    }
+
+    private static String detailJson(Node node, Long id) {
+        return new String(node.bean(ProductService.class).findJsonById(id, "admin").json(), StandardCharsets.UTF_8);
+    }
+
+    // EntityManager.find checks the second-level cache before the database
+    private static String cachedName(Node node, Long id) {
+        EntityManagerFactory emf = node.bean(EntityManagerFactory.class);
+        return node.bean(TransactionTemplate.class).execute(status -> {
+            EntityManager em = emf.createEntityManager();
+            try {
+                return em.find(Product.class, id).getName();
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    private Node startNode(String name) throws Exception {
+        URL config = getClass().getClassLoader().getResource("caffeine-jcache.conf");
+        // Caching providers key managers by class loader, so a fresh loader means a private cache
+        URLClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        CacheManager cacheManager = Caching.getCachingProvider(
+                        "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+                .getCacheManager(config.toURI(), loader);
+        HibernatePropertiesCustomizer privateCache = properties ->
+                properties.put("hibernate.javax.cache.cache_manager", cacheManager);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DmcApplication.class)
+                .profiles("shared")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("privateCache", privateCache))
+                .run("--DMC_DB_DIR=" + dir.resolve("db"),
+                        "--server.port=0",
+                        "--app.audit.dir=" + dir.resolve("audit-" + name),
+                        "--app.cache-bus.poll-interval=" + POLL_INTERVAL);
+        return new Node(context, cacheManager, loader);
+    }
+
+    private record Node(ConfigurableApplicationContext context, CacheManager cacheManager,
+                        URLClassLoader loader) implements AutoCloseable {
+
+        <T> T bean(Class<T> type) {
+            return context.getBean(type);
+        }
+
+        @Override
+        public void close() throws Exception {
+            context.close();
+            cacheManager.close();
+            loader.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.ArtifactChunk;
+import com.ency.dmc.repository.ArtifactBlobRepository;
+import com.ency.dmc.repository.ArtifactChunkRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ContentAddressedArtifactStorageTest {
+
+    private static final int UPLOADERS = 8;
+
+    @Autowired
+    private ContentAddressedArtifactStorage storage;
+
+    @Autowired
+    private ArtifactBlobRepository blobRepository;
+
+    @Autowired
+    private ArtifactChunkRepository chunkRepository;
+
+    @Test
+    void sharedChunksAreCountedPerManifestAndFreedWithTheLastReference() throws Exception {
+        byte[] original = random(2 * 1024 * 1024, 11);
+        byte[] edited = original.clone();
+        edited[original.length / 2] ^= 0x5A;
+
+        StoredArtifact a1 = storage.store(new ByteArrayInputStream(original));
+        StoredArtifact a2 = storage.store(new ByteArrayInputStream(original));
+        StoredArtifact b = storage.store(new ByteArrayInputStream(edited));
+        assertThat(a1.key()).isEqualTo(a2.key());
+        assertThat(blobRepository.findById(a1.key()).orElseThrow().getRefCount()).isEqualTo(2);
+
+        // Only the chunk around the edit differs, and shared chunks count both manifests
+        List<ArtifactChunk> rows = chunkRepository.findAll();
+        assertThat(rows).anyMatch(c -> c.getRefCount() == 2);
+        assertThat(rows).filteredOn(c -> c.getRefCount() == 1).hasSizeLessThanOrEqualTo(4);
+
+        storage.release(a1.key());
+        assertThat(blobRepository.findById(a1.key()).orElseThrow().getRefCount()).isEqualTo(1);
+        storage.release(a2.key());
+        assertThat(blobRepository.existsById(a1.key())).isFalse();
+        assertThat(chunkRepository.findAll()).allMatch(c -> c.getRefCount() == 1);
+
+        // With no grace period the collector removes the files only the released artifact used
+        Duration grace = (Duration) ReflectionTestUtils.getField(storage, "gcGrace");
+        ReflectionTestUtils.setField(storage, "gcGrace", Duration.ZERO);
+        try {
+            storage.collectGarbage();
+        } finally {
+            ReflectionTestUtils.setField(storage, "gcGrace", grace);
+        }
+        assertThat(read(b)).isEqualTo(edited);
+
+        storage.release(b.key());
+        assertThat(blobRepository.existsById(b.key())).isFalse();
+        assertThat(chunkRepository.count()).isZero();
+    }
+
+    @Test
+    void concurrentUploadsAndReleasesKeepExactCounts() throws Exception {
+        byte[] data = random(512 * 1024, 12);
+        ExecutorService pool = Executors.newFixedThreadPool(UPLOADERS);
+        try {
+            List<Future<StoredArtifact>> stored = new ArrayList<>();
+            for (int i = 0; i < UPLOADERS; i++) {
+                stored.add(pool.submit(() -> storage.store(new ByteArrayInputStream(data))));
+            }
+            String key = null;
+            for (Future<StoredArtifact> f : stored) {
+                key = f.get(1, TimeUnit.MINUTES).key();
+            }
+            assertThat(blobRepository.findById(key).orElseThrow().getRefCount()).isEqualTo(UPLOADERS);
+
+            String released = key;
+            List<Future<?>> releases = new ArrayList<>();
+            for (int i = 0; i < UPLOADERS - 1; i++) {
+                releases.add(pool.submit(() -> {
+                    storage.release(released);
+                    return null;
+                }));
+            }
+            for (Future<?> f : releases) {
+                f.get(1, TimeUnit.MINUTES);
+            }
+            assertThat(blobRepository.findById(key).orElseThrow().getRefCount()).isEqualTo(1);
+            storage.release(key);
+            assertThat(blobRepository.existsById(key)).isFalse();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private byte[] read(StoredArtifact artifact) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        storage.transferTo(artifact.key(), 0, artifact.size(), Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
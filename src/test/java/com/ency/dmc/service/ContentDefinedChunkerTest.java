@@ -0,0 +1,80 @@
+package com.ency.dmc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDefinedChunkerTest {
+
+    @Test
+    void chunksReassembleTheInputWithinTheSizeBounds() throws IOException {
+        byte[] data = random(3 * 1024 * 1024 + 123, 1);
+        List<byte[]> chunks = chunk(data);
+
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        chunks.forEach(joined::writeBytes);
+        assertThat(joined.toByteArray()).isEqualTo(data);
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            assertThat(chunks.get(i).length).isBetween(ContentDefinedChunker.MIN_SIZE, ContentDefinedChunker.MAX_SIZE);
+        }
+        assertThat(chunks.get(chunks.size() - 1).length).isLessThanOrEqualTo(ContentDefinedChunker.MAX_SIZE);
+    }
+
+    @Test
+    void smallInputIsOneChunkAndEmptyInputNone() throws IOException {
+        assertThat(chunk(new byte[0])).isEmpty();
+        assertThat(chunk(random(1000, 2))).hasSize(1);
+    }
+
+    @Test
+    void anInsertionOnlyChangesTheChunksAroundIt() throws IOException {
+        byte[] original = random(4 * 1024 * 1024, 3);
+        int at = 1024 * 1024;
+        byte[] edited = new byte[original.length + 7];
+        System.arraycopy(original, 0, edited, 0, at);
+        System.arraycopy("patched".getBytes(), 0, edited, at, 7);
+        System.arraycopy(original, at, edited, at + 7, original.length - at);
+
+        Set<String> before = fingerprints(chunk(original));
+        List<byte[]> after = chunk(edited);
+        long reused = after.stream().map(ContentDefinedChunkerTest::fingerprint).filter(before::contains).count();
+
+        // Boundaries resynchronize right after the edit, so at most two chunks are new
+        assertThat(after.size() - reused).isLessThanOrEqualTo(2);
+    }
+
+    private static List<byte[]> chunk(byte[] data) throws IOException {
+        ContentDefinedChunker chunker = new ContentDefinedChunker(new ByteArrayInputStream(data));
+        List<byte[]> chunks = new ArrayList<>();
+        for (byte[] c = chunker.next(); c != null; c = chunker.next()) {
+            chunks.add(c);
+        }
+        return chunks;
+    }
+
+    private static Set<String> fingerprints(List<byte[]> chunks) {
+        Set<String> result = new HashSet<>();
+        chunks.forEach(c -> result.add(fingerprint(c)));
+        return result;
+    }
+
+    private static String fingerprint(byte[] chunk) {
+        return HexFormat.of().formatHex(FileSystemArtifactStorage.newSha256().digest(chunk));
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
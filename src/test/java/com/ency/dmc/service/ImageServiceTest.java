@@ -0,0 +1,131 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageServiceTest {
+
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 3;
+    private static final int UPLOADS = 3 * (WORKERS + QUEUE_CAPACITY);
+
+    @TempDir
+    Path dir;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ImageService images = new ImageService(productRepository, mock(ProductService.class));
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(productRepository.existsById(anyLong())).thenReturn(true);
+        ReflectionTestUtils.setField(images, "rootDir", dir);
+        ReflectionTestUtils.setField(images, "configuredWorkers", WORKERS);
+        ReflectionTestUtils.setField(images, "queueCapacity", QUEUE_CAPACITY);
+        ReflectionTestUtils.setField(images, "thumbnailSize", 256);
+        ReflectionTestUtils.setField(images, "mediumSize", 1024);
+        ReflectionTestUtils.setField(images, "maxPixels", 50_000_000L);
+        ReflectionTestUtils.setField(images, "jpegQuality", 0.85f);
+        ReflectionTestUtils.setField(images, "maxUploadSize", DataSize.ofMegabytes(10));
+        images.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        images.shutdown();
+    }
+
+    @Test
+    void uploadsBeyondWorkersAndQueueAreRefusedUnread() throws Exception {
+        byte[] png = png();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        // Holds its slot while "reading" until released, as a slow client would
+        class SlowUpload extends MockMultipartFile {
+            SlowUpload() {
+                super("file", "photo.png", "image/png", png);
+            }
+
+            @Override
+            public byte[] getBytes() throws IOException {
+                read.incrementAndGet();
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return super.getBytes();
+            }
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(UPLOADS);
+        try {
+            List<Future<String>> outcomes = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                long productId = i + 1;
+                outcomes.add(clients.submit(() -> {
+                    try {
+                        images.upload(productId, new SlowUpload());
+                        return "ok";
+                    } catch (RuntimeException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            // Every slot is taken and every other upload has been turned away
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (outcomes.stream().filter(Future::isDone).count() < UPLOADS - WORKERS - QUEUE_CAPACITY
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            List<String> results = new ArrayList<>();
+            for (Future<String> f : outcomes) {
+                results.add(f.get(1, TimeUnit.MINUTES));
+            }
+            assertThat(results).filteredOn("ok"::equals).hasSize(WORKERS + QUEUE_CAPACITY);
+            assertThat(results).filteredOn(r -> r.contains("busy")).hasSize(UPLOADS - WORKERS - QUEUE_CAPACITY);
+            // Refused uploads never reached getBytes(), so at most one body per slot was in memory
+            assertThat(read.get()).isEqualTo(WORKERS + QUEUE_CAPACITY);
+            assertThat(peakInFlight.get()).isLessThanOrEqualTo(WORKERS + QUEUE_CAPACITY);
+            assertThat(images.stats().getRejected()).isEqualTo(UPLOADS - WORKERS - QUEUE_CAPACITY);
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
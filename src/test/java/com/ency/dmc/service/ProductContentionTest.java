@@ -0,0 +1,120 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.model.Product;
+import com.ency.dmc.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writers hammering one product row: version-checked updates that retry on conflict, as
+ * product edits do now, against holding a PESSIMISTIC_WRITE row lock for the whole
+ * read-modify-write. Both sides apply the same number of successful edits.
+ */
+@SpringBootTest
+@Slf4j
+class ProductContentionTest {
+
+    private static final int WRITERS = 8;
+    private static final int EDITS_PER_WRITER = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void optimisticAgainstPessimisticOnOneHotRow() throws Exception {
+        Product product = productRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Long id = product.getId();
+        String original = product.getKitContents();
+        AtomicLong conflicts = new AtomicLong();
+
+        try {
+            long optimistic = runWriters(value -> {
+                while (true) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Product p = productRepository.findById(id).orElseThrow();
+                            p.setKitContents("optimistic " + value);
+                            productRepository.saveAndFlush(p);
+                        });
+                        return;
+                    } catch (OptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            });
+            long pessimistic = runWriters(value -> transactionTemplate.executeWithoutResult(status -> {
+                Product p = entityManager.find(Product.class, id, LockModeType.PESSIMISTIC_WRITE);
+                p.setKitContents("pessimistic " + value);
+            }));
+
+            log.info("Contention on one product row, {} writers x {} edits:", WRITERS, EDITS_PER_WRITER);
+            log.info("  optimistic with retry: {} ms, {} edits/s, {} conflicts retried",
+                    optimistic / 1_000_000, rate(optimistic), conflicts.get());
+            log.info("  PESSIMISTIC_WRITE:     {} ms, {} edits/s", pessimistic / 1_000_000, rate(pessimistic));
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    productRepository.findById(id).orElseThrow().setKitContents(original));
+        }
+
+        // Every edit bumped the version once; a lost update would leave it short
+        assertThat(productRepository.findById(id).orElseThrow().getVersion())
+                .isGreaterThanOrEqualTo(product.getVersion() + 2L * WRITERS * EDITS_PER_WRITER);
+    }
+
+    private long runWriters(Edit edit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CyclicBarrier start = new CyclicBarrier(WRITERS + 1);
+        List<Future<?>> done = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                done.add(pool.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    for (int i = 0; i < EDITS_PER_WRITER; i++) {
+                        edit.apply(writer + "/" + i);
+                    }
+                    return null;
+                }));
+            }
+            start.await(10, TimeUnit.SECONDS);
+            long started = System.nanoTime();
+            for (Future<?> f : done) {
+                f.get(5, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long rate(long nanos) {
+        return (long) WRITERS * EDITS_PER_WRITER * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    // Each edit writes a distinct value, so dirty checking never skips the UPDATE
+    @FunctionalInterface
+    private interface Edit {
+        void apply(String value);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.dto.ProductSearchRequest;
+import com.ency.dmc.model.Product;
+import com.ency.dmc.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductSearchCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedSearchPageLoadsNoEntitiesAfterADownload() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ProductSearchRequest request = new ProductSearchRequest();
+
+        Page<ProductDto> first = productService.search(request, "admin");
+        assertThat(first.getContent()).isNotEmpty();
+        ProductDto downloaded = first.getContent().get(0);
+        productService.incrementDownloadCount(downloaded.getId());
+
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        long productLoads = statistics.getEntityStatistics(Product.class.getName()).getLoadCount();
+
+        Page<ProductDto> second = productService.search(request, "admin");
+
+        assertThat(second.getContent()).extracting(ProductDto::getId)
+                .containsExactlyElementsOf(first.getContent().stream().map(ProductDto::getId).toList());
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+        assertThat(statistics.getEntityStatistics(Product.class.getName()).getLoadCount()).isEqualTo(productLoads);
+        assertThat(second.getContent().get(0).getDownloadCount()).isEqualTo(downloaded.getDownloadCount() + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.dto.ProductDto;
+import com.ency.dmc.model.ContentType;
+import com.ency.dmc.model.MachineType;
+import com.ency.dmc.model.PublicationStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarProductIndexTest {
+
+    private final SimilarProductIndex index = new SimilarProductIndex(null);
+
+    @Test
+    void commonFeaturesRankCandidatesWithoutGeneratingThem() {
+        // Every product shares machine and content type, far above the candidate cutoff
+        for (long id = 1; id <= 100; id++) {
+            index.upsert(product(id, "Maker " + id, id % 2 == 0 ? MachineType.MILLING : MachineType.TURNING));
+        }
+        index.upsert(product(101, "Maker 1", MachineType.TURNING));
+        index.upsert(product(102, "Maker 1", MachineType.MILLING));
+
+        // Only the products of the same maker are candidates; the shared machine type breaks the tie
+        assertThat(index.findSimilar(1L, 10)).containsExactly(101L, 102L);
+    }
+
+    @Test
+    void productWithOnlyCommonFeaturesFallsBackToItsRarestGroup() {
+        for (long id = 1; id <= 100; id++) {
+            index.upsert(product(id, "Maker " + id, id <= 80 ? MachineType.MILLING : MachineType.TURNING));
+        }
+        index.upsert(product(200, null, MachineType.TURNING));
+
+        assertThat(index.findSimilar(200L, 50)).hasSize(20).allMatch(id -> id > 80);
+    }
+
+    private static ProductDto product(long id, String maker, MachineType machineType) {
+        return ProductDto.builder()
+                .id(id)
+                .machineManufacturer(maker)
+                .machineType(machineType)
+                .contentType(ContentType.values()[0])
+                .publicationStatus(PublicationStatus.PUBLISHED)
+                .build();
+    }
+}
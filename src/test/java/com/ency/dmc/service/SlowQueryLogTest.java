@@ -0,0 +1,25 @@
+package com.ency.dmc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    @Test
+    void parametersAreMaskedUnlessRawCaptureIsEnabled() {
+        SlowQueryLog masked = new SlowQueryLog(Duration.ZERO, 10, 0, Duration.ofMinutes(10), false);
+        masked.record("select * from licenses where license_key = ? and user_id = ?",
+                new Object[]{"ABCD-1234-EFGH", 42L, null}, 2, 1_000_000);
+
+        List<String> params = masked.report(10).getQueries().get(0).getParameters();
+        assertThat(params).containsExactly("String(14)", "Long(2)");
+
+        SlowQueryLog raw = new SlowQueryLog(Duration.ZERO, 10, 0, Duration.ofMinutes(10), true);
+        raw.record("select * from licenses where license_key = ?", new Object[]{"ABCD-1234-EFGH"}, 1, 1_000_000);
+        assertThat(raw.report(10).getQueries().get(0).getParameters()).containsExactly("ABCD-1234-EFGH");
+    }
+}
@@ -0,0 +1,103 @@
+package com.ency.dmc.service;
+
+import com.ency.dmc.event.ProductChangeType;
+import com.ency.dmc.event.ProductsBulkChangedEvent;
+import com.ency.dmc.repository.ProductRepository;
+import com.ency.dmc.repository.ProductSortView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SortOrderIndexTest {
+
+    // Committed download counts, as the database would return them
+    private final Map<Long, Integer> downloads = new HashMap<>(Map.of(1L, 5, 2L, 6));
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final SortOrderIndex index = new SortOrderIndex(repository);
+
+    SortOrderIndexTest() {
+        when(repository.findAllSortRows()).thenAnswer(inv -> rows(downloads.keySet()));
+        when(repository.findSortRowsByIdIn(anyCollection())).thenAnswer(inv -> rows(inv.getArgument(0)));
+        index.rebuild();
+    }
+
+    @Test
+    void downloadsAreAppliedOnFlush() {
+        downloads.put(1L, 7);
+        index.recordDownload(1L);
+        index.recordDownload(1L);
+        assertThat(byDownloads()).containsExactly(1L, 2L);
+
+        index.flushDownloads();
+        assertThat(byDownloads()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void reloadBeforeFlushDoesNotCountTheDownloadTwice() {
+        // Committed and recorded, then the row is reloaded before the batch runs
+        downloads.put(1L, 6);
+        index.recordDownload(1L);
+        index.onProductsChanged(new ProductsBulkChangedEvent(ProductChangeType.UPDATED, List.of(1L), Map.of(), true));
+        index.flushDownloads();
+
+        // 6 downloads each, so the tie falls back to id; a double count would put 1 last
+        assertThat(byDownloads()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void remoteDownloadsAreReadBackOnFlush() {
+        downloads.put(1L, 9);
+        index.recordDownloads(Set.of(1L));
+        index.flushDownloads();
+        assertThat(byDownloads()).containsExactly(2L, 1L);
+        assertThat(index.page(SortKey.DOWNLOAD_COUNT, false, List.of(1L, 2L), 0, 1)).contains(List.of(1L));
+    }
+
+    private List<Long> byDownloads() {
+        return index.page(SortKey.DOWNLOAD_COUNT, true, List.of(1L, 2L), 0, 10).orElseThrow();
+    }
+
+    private List<ProductSortView> rows(Iterable<Long> ids) {
+        List<ProductSortView> result = new ArrayList<>();
+        for (Long id : ids) {
+            if (downloads.containsKey(id)) {
+                result.add(new Row(id, downloads.get(id)));
+            }
+        }
+        return result;
+    }
+
+    private record Row(Long getId, Integer getDownloadCount) implements ProductSortView {
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return LocalDateTime.of(2024, 1, 1, 0, 0);
+        }
+
+        @Override
+        public LocalDateTime getPublishedAt() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "Product " + getId;
+        }
+
+        @Override
+        public BigDecimal getPriceEur() {
+            return null;
+        }
+    }
+}
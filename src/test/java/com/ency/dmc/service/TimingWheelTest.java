@@ -0,0 +1,52 @@
+package com.ency.dmc.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    private final TimingWheel wheel = new TimingWheel(TICK, 60_000, START);
+
+    @Test
+    void expiresEntriesOnceTheirDeadlinePasses() {
+        assertThat(wheel.schedule(1, START + 2_500)).isTrue();
+        assertThat(wheel.schedule(2, START + 5_000)).isTrue();
+
+        assertThat(wheel.advance(START + 2_000)).isEmpty();
+        assertThat(wheel.advance(START + 3_000)).containsExactly(1L);
+        assertThat(wheel.advance(START + 10_000)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondTheHorizon() {
+        assertThat(wheel.schedule(1, START + 120_000)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void reschedulingReplacesTheEarlierDeadline() {
+        wheel.schedule(1, START + 2_000);
+        wheel.schedule(1, START + 8_000);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advance(START + 5_000)).isEmpty();
+        assertThat(wheel.advance(START + 8_000)).containsExactly(1L);
+
+        // Moving an entry out of range drops it instead of keeping the old deadline
+        wheel.schedule(2, START + 12_000);
+        assertThat(wheel.schedule(2, START + 200_000)).isFalse();
+        assertThat(wheel.advance(START + 20_000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterMissingMoreThanAFullTurn() {
+        wheel.schedule(1, START + 30_000);
+        assertThat(wheel.advance(START + 300_000)).containsExactly(1L);
+    }
+}
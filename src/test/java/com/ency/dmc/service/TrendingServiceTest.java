@@ -0,0 +1,63 @@
+package com.ency.dmc.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingServiceTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    // Middle of an hour bucket, where a fresh download scores exactly 1
+    private static final long NOW = 480_000 * HOUR + HOUR / 2;
+
+    private final TrendingService trending = new TrendingService(null, null);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trending, "windowHours", 4);
+        ReflectionTestUtils.setField(trending, "halfLife", Duration.ofHours(1));
+    }
+
+    @Test
+    void scoreHalvesEveryHalfLife() {
+        trending.recordDownload(1L, NOW);
+        trending.recordDownload(1L, NOW);
+
+        assertThat(trending.score(1L, NOW)).isCloseTo(2.0, within(1e-9));
+        assertThat(trending.score(1L, NOW + HOUR)).isCloseTo(1.0, within(1e-9));
+        assertThat(trending.score(1L, NOW + 2 * HOUR)).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void bucketsOlderThanTheWindowAreDropped() {
+        trending.recordDownload(1L, NOW);
+        trending.recordDownload(1L, NOW + HOUR);
+        assertThat(trending.downloadsSince(1L, 4, NOW + HOUR)).isEqualTo(2);
+
+        // Four hours later the first bucket has left the window but still occupies its slot
+        assertThat(trending.downloadsSince(1L, 4, NOW + 4 * HOUR)).isEqualTo(1);
+        assertThat(trending.score(1L, NOW + 4 * HOUR)).isCloseTo(Math.pow(0.5, 3), within(1e-9));
+
+        // A download in the same slot restarts it instead of adding to the stale count
+        trending.recordDownload(1L, NOW + 4 * HOUR);
+        assertThat(trending.downloadsSince(1L, 4, NOW + 4 * HOUR)).isEqualTo(2);
+        assertThat(trending.downloadsSince(1L, 1, NOW + 4 * HOUR)).isEqualTo(1);
+    }
+
+    @Test
+    void topOrdersByDecayedScore() {
+        long now = System.currentTimeMillis();
+        trending.recordDownload(1L, now - 3 * HOUR);
+        trending.recordDownload(1L, now - 3 * HOUR);
+        trending.recordDownload(2L, now);
+
+        // Two downloads three half-lives ago weigh about 0.25 against one fresh download
+        assertThat(trending.top(List.of(1L, 2L, 3L), 2, false)).containsExactly(2L, 1L);
+    }
+}